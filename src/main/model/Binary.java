@@ -14,7 +14,7 @@ public class Binary extends CentralBody {
         this.name = name;
         this.centralBodyType = "Binary";
 
-        EventLog.getInstance().logEvent(new Event("Created Binary System: " + name));
+        EventLog.getInstance().logEvent(EventTemplate.BINARY_CREATED, name, null);
     }
 
     // EFFECT: Returns false because binaries cannot go supernova (in this program)
@@ -11,7 +11,7 @@ public class BlackHole extends CentralBody {
         this.name = name;
         this.centralBodyType = "Black Hole";
 
-        EventLog.getInstance().logEvent(new Event("Created Black Hole: " + name));
+        EventLog.getInstance().logEvent(EventTemplate.BLACK_HOLE_CREATED, name, null);
     }
 
     // EFFECT: constructs black hole with all data given
@@ -22,7 +22,7 @@ public class BlackHole extends CentralBody {
         this.name = name;
         this.centralBodyType = centralBodyType;
 
-        EventLog.getInstance().logEvent(new Event("Created Black Hole: " + name));
+        EventLog.getInstance().logEvent(EventTemplate.BLACK_HOLE_CREATED, name, null);
     }
 
     // EFFECT: returns false because black holes cannot go supernova
@@ -11,7 +11,7 @@ public abstract class Body {
     public void changeName(String newName) {
         this.name = newName;
 
-        EventLog.getInstance().logEvent(new Event("Changed body's name to " + name));
+        EventLog.getInstance().logEvent(EventTemplate.BODY_RENAMED, name, null);
     }
 
     // getters
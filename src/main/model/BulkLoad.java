@@ -0,0 +1,95 @@
+package model;
+
+/**
+ * Represents a bulk load of a galaxy.
+ * While a bulk load is open, the EventLog discards the per-object events
+ * (bodies created, solar systems and planets added) logged by the thread
+ * that opened it, so edits made on other threads at the same time are
+ * still logged. Worker threads building part of the galaxy join the bulk
+ * load explicitly with within.
+ * Closing the bulk load logs a single summary event for the loaded galaxy.
+ */
+public class BulkLoad implements AutoCloseable {
+    /**
+     * Represents work done by a worker thread as part of a bulk load.
+     * @param <T>  the type of its result
+     * @param <E>  the type of exception it may throw
+     */
+    public interface Work<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    private static final long NANOS_PER_MILLI = 1_000_000;
+    private final EventLog log;
+    private final long startNanos;
+    private Galaxy galaxy;
+    private boolean closed;
+
+    /**
+     * Starts a bulk load; only created by the EventLog.
+     * @param log  the log whose per-object events are suppressed
+     */
+    BulkLoad(EventLog log) {
+        this.log = log;
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Records the galaxy that was loaded, to be described by the summary event.
+     * @param galaxy  the loaded galaxy
+     */
+    public void setGalaxy(Galaxy galaxy) {
+        this.galaxy = galaxy;
+    }
+
+    /**
+     * Runs work on the calling thread as part of this bulk load, discarding
+     * the per-object events it logs. Used by worker threads that build part
+     * of the galaxy for the thread that opened the bulk load.
+     * @param work  the work to run
+     * @param <T>  the type of its result
+     * @param <E>  the type of exception it may throw
+     * @return  the result of the work
+     * @throws E  if the work throws it
+     */
+    public <T, E extends Exception> T within(Work<T, E> work) throws E {
+        log.enterBulkLoad();
+        try {
+            return work.run();
+        } finally {
+            log.endBulkLoad();
+        }
+    }
+
+    /**
+     * Ends the bulk load and, if a galaxy was recorded, logs the summary
+     * event. Must be called on the thread that opened the bulk load.
+     * Closing an already closed bulk load does nothing.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        log.endBulkLoad();
+        if (galaxy != null) {
+            log.logEvent(new Event(EventTemplate.GALAXY_LOADED, null, galaxy.getName(), summary()));
+        }
+    }
+
+    // EFFECT: describes the loaded galaxy and how long it took to load
+    private String summary() {
+        long millis = (System.nanoTime() - startNanos) / NANOS_PER_MILLI;
+        if (galaxy.hasUnloadedSolarSystems()) {
+            return "Opened galaxy " + galaxy.getName() + ": " + galaxy.getSolarSystemCount() + " systems in "
+                    + millis + " ms";
+        }
+        int planetCount = 0;
+        for (SolarSystem s : galaxy.getSolarSystems().values()) {
+            planetCount += s.getPlanetCount();
+        }
+        return "Loaded galaxy " + galaxy.getName() + ": " + galaxy.getSolarSystemCount() + " systems, "
+                + planetCount + " planets in " + millis + " ms";
+    }
+}
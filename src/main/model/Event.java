@@ -1,16 +1,23 @@
 package model;
 
 
-import java.util.Calendar;
 import java.util.Date;
 
 
 /**
  * Represents a galaxy system event.
+ * Events created from a template carry a category and the names of
+ * the body and galaxy involved, and only build their description
+ * the first time it is needed.
  */
 public class Event {
     private static final int HASH_CONSTANT = 13;
-    private Date dateLogged;
+    private static final long CLOCK_ORIGIN_MILLIS = System.currentTimeMillis();
+    private static final long CLOCK_ORIGIN_NANOS = System.nanoTime();
+    private final long timeLogged;   // milliseconds since the epoch
+    private final EventTemplate template;
+    private final String bodyName;
+    private final String galaxyName;
     private String description;
 
     /**
@@ -19,16 +26,71 @@ public class Event {
      * @param description  a description of the event
      */
     public Event(String description) {
-        dateLogged = Calendar.getInstance().getTime();
+        this(null, null, null, description);
+    }
+
+    /**
+     * Creates an event described by a template
+     * and the current date/time stamp.
+     * @param template  the template describing the event
+     * @param bodyName  the name of the body the event is about, or null
+     * @param galaxyName  the name of the galaxy the event is about, or null
+     */
+    Event(EventTemplate template, String bodyName, String galaxyName) {
+        this(template, bodyName, galaxyName, null);
+    }
+
+    /**
+     * Creates an event with a template, the current date/time stamp
+     * and a description built in advance.
+     * @param template  the template categorizing the event
+     * @param bodyName  the name of the body the event is about, or null
+     * @param galaxyName  the name of the galaxy the event is about, or null
+     * @param description  a description of the event
+     */
+    Event(EventTemplate template, String bodyName, String galaxyName, String description) {
+        this(currentTimeMillis(), template, bodyName, galaxyName, description);
+    }
+
+    /**
+     * Recreates a logged event from its stored fields.
+     * @param timeLogged  the time of the event in milliseconds since the epoch
+     * @param template  the template describing the event, or null
+     * @param bodyName  the name of the body the event is about, or null
+     * @param galaxyName  the name of the galaxy the event is about, or null
+     * @param description  a description of the event, or null to build it from the template
+     */
+    Event(long timeLogged, EventTemplate template, String bodyName, String galaxyName, String description) {
+        this.timeLogged = timeLogged;
+        this.template = template;
+        this.bodyName = bodyName;
+        this.galaxyName = galaxyName;
         this.description = description;
     }
 
+    /**
+     * Reads the wall clock time from the monotonic clock, which is much
+     * cheaper than building a Calendar for every event.
+     * @return  the current time in milliseconds since the epoch
+     */
+    static long currentTimeMillis() {
+        return CLOCK_ORIGIN_MILLIS + (System.nanoTime() - CLOCK_ORIGIN_NANOS) / 1_000_000;
+    }
+
     /**
      * Gets the date of this event (includes time).
      * @return  the date of the event
      */
     public Date getDate() {
-        return dateLogged;
+        return new Date(timeLogged);
+    }
+
+    /**
+     * Gets the time of this event without allocating a Date.
+     * @return  the time of the event in milliseconds since the epoch
+     */
+    long getTimeLogged() {
+        return timeLogged;
     }
 
     /**
@@ -36,9 +98,55 @@ public class Event {
      * @return  the description of the event
      */
     public String getDescription() {
+        if (description == null) {
+            description = template.render(bodyName, galaxyName);
+        }
         return description;
     }
 
+    /**
+     * Gets the description of this event if it has already been built.
+     * @return  the description, or null if it will be built from the template
+     */
+    String getPresetDescription() {
+        return description;
+    }
+
+    /**
+     * Gets the template describing this event.
+     * @return  the template, or null if the event was given a description directly
+     */
+    public EventTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Gets the category of this event.
+     * @return  the category, GENERAL if the event was given a description directly
+     */
+    public EventCategory getCategory() {
+        if (template == null) {
+            return EventCategory.GENERAL;
+        }
+        return template.getCategory();
+    }
+
+    /**
+     * Gets the name of the body this event is about.
+     * @return  the body name, or null if the event is not about a body
+     */
+    public String getBodyName() {
+        return bodyName;
+    }
+
+    /**
+     * Gets the name of the galaxy this event is about.
+     * @return  the galaxy name, or null if the event does not name a galaxy
+     */
+    public String getGalaxyName() {
+        return galaxyName;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == null) {
@@ -50,18 +158,17 @@ public class Event {
 
         Event otherEvent = (Event) other;
 
-        return (this.dateLogged.equals(otherEvent.dateLogged)
-                && this.description.equals(otherEvent.description));
+        return (this.timeLogged == otherEvent.timeLogged
+                && this.getDescription().equals(otherEvent.getDescription()));
     }
 
     @Override
     public int hashCode() {
-        return (HASH_CONSTANT * dateLogged.hashCode() + description.hashCode());
+        return (HASH_CONSTANT * Long.hashCode(timeLogged) + getDescription().hashCode());
     }
 
     @Override
     public String toString() {
-        return dateLogged.toString() + "\n" + description;
+        return getDate().toString() + "\n" + getDescription();
     }
 }
-
@@ -0,0 +1,27 @@
+package model;
+
+/**
+ * Represents the kinds of galaxy events.
+ * Logging of each category can be switched on and off in the EventLog.
+ */
+public enum EventCategory {
+    GALAXY_CREATED,
+    GALAXY_RENAMED,
+    GALAXY_SAVED,
+    GALAXY_LOADED,
+    BODY_CREATED,
+    BODY_RENAMED,
+    SOLAR_SYSTEM_ADDED,
+    SOLAR_SYSTEM_REMOVED,
+    PLANET_ADDED,
+    PLANET_REMOVED,
+    GENERAL;
+
+    /**
+     * Gets the bit representing this category in a category mask.
+     * @return  the mask bit for this category
+     */
+    public long mask() {
+        return 1L << ordinal();
+    }
+}
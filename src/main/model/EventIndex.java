@@ -0,0 +1,112 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents an index of the events in an EventLog by category and body name.
+ * The index is brought up to date when it is queried, so logging an event
+ * costs nothing extra. Entries for events that have been overwritten are
+ * pruned as the index grows.
+ */
+class EventIndex {
+    private final Map<EventCategory, ArrayDeque<Long>> byCategory = new EnumMap<>(EventCategory.class);
+    private final Map<String, ArrayDeque<Long>> byBodyName = new HashMap<>();
+    private long indexedTo;     // sequence number of the first event not yet indexed
+    private long entryCount;
+
+    /**
+     * Gets the events in a category that are still in the ring, oldest first.
+     * @param category  the category wanted
+     * @param ring  the ring holding the events
+     * @return  the matching events
+     */
+    synchronized List<Event> inCategory(EventCategory category, EventRing ring) {
+        catchUp(ring);
+        return collect(byCategory.get(category), ring);
+    }
+
+    /**
+     * Gets the events about a body that are still in the ring, oldest first.
+     * @param bodyName  the name of the body
+     * @param ring  the ring holding the events
+     * @return  the matching events
+     */
+    synchronized List<Event> about(String bodyName, EventRing ring) {
+        catchUp(ring);
+        return collect(byBodyName.get(bodyName), ring);
+    }
+
+    /**
+     * Indexes the events logged since the last query, then prunes entries
+     * for overwritten events if the index has grown well past the ring's capacity.
+     * @param ring  the ring holding the events
+     */
+    private void catchUp(EventRing ring) {
+        long end = ring.nextSequence();
+        for (long sequence = Math.max(indexedTo, ring.firstAvailable()); sequence < end; sequence++) {
+            Event e = ring.get(sequence);
+            if (e != null) {
+                add(byCategory.computeIfAbsent(e.getCategory(), c -> new ArrayDeque<>()), sequence);
+                if (e.getBodyName() != null) {
+                    add(byBodyName.computeIfAbsent(e.getBodyName(), n -> new ArrayDeque<>()), sequence);
+                }
+            }
+        }
+        indexedTo = Math.max(indexedTo, end);
+        if (entryCount > 4L * ring.capacity()) {
+            prune(byCategory.values(), ring.firstAvailable());
+            prune(byBodyName.values(), ring.firstAvailable());
+            byBodyName.values().removeIf(ArrayDeque::isEmpty);
+        }
+    }
+
+    private void add(ArrayDeque<Long> entries, long sequence) {
+        entries.addLast(sequence);
+        entryCount++;
+    }
+
+    /**
+     * Removes the entries for events older than the given sequence number.
+     * @param entryLists  the lists of entries to prune
+     * @param first  the oldest sequence number still held
+     */
+    private void prune(Iterable<ArrayDeque<Long>> entryLists, long first) {
+        for (ArrayDeque<Long> entries : entryLists) {
+            while (!entries.isEmpty() && entries.peekFirst() < first) {
+                entries.pollFirst();
+                entryCount--;
+            }
+        }
+    }
+
+    /**
+     * Looks up the events for a list of entries, dropping entries for events
+     * that have been overwritten.
+     * @param entries  the entries to look up, or null if there are none
+     * @param ring  the ring holding the events
+     * @return  the events still in the ring, oldest first
+     */
+    private List<Event> collect(ArrayDeque<Long> entries, EventRing ring) {
+        List<Event> found = new ArrayList<>();
+        if (entries == null) {
+            return found;
+        }
+        Iterator<Long> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            Event e = ring.get(iterator.next());
+            if (e != null) {
+                found.add(e);
+            } else {
+                iterator.remove();
+                entryCount--;
+            }
+        }
+        return found;
+    }
+}
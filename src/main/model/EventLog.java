@@ -1,26 +1,53 @@
 package model;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjLongConsumer;
 
 /**
  * Represents a log of galaxy events.
  * We use the Singleton Design Pattern to ensure that there is only
  * one EventLog in the system and that the system has global access
  * to the single instance of the EventLog.
+ * The log keeps at most getCapacity() events; once full, the oldest
+ * events are overwritten and counted as dropped.
+ * Events may be logged from any number of threads without locking.
+ * Each category of event can be disabled; events in a disabled category
+ * are discarded before anything is allocated for them.
+ * While a BulkLoad is open, the per-object events logged by the thread
+ * that opened it, and by workers that join it, are discarded as well;
+ * other threads keep logging them.
  */
 public class EventLog implements Iterable<Event> {
-    /** the only EventLog in the system (Singleton Design Pattern) */
-    private static EventLog theLog;
-    private Collection<Event> events;
+    /** number of events kept unless setCapacity is called */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    private volatile EventRing events;
+    /** categories discarded while a bulk load is open */
+    private static final long BULK_SUPPRESSED = EventCategory.GALAXY_CREATED.mask()
+            | EventCategory.BODY_CREATED.mask()
+            | EventCategory.SOLAR_SYSTEM_ADDED.mask()
+            | EventCategory.PLANET_ADDED.mask();
+    private final AtomicLong enabledCategories = new AtomicLong(-1L);
+    /** number of bulk loads the current thread has open or has joined */
+    private final ThreadLocal<int[]> bulkLoadDepth = ThreadLocal.withInitial(() -> new int[1]);
+    private final EventIndex index = new EventIndex();
 
     /**
      * Prevent external construction.
      * (Singleton Design Pattern).
      */
     private EventLog() {
-        events = new ArrayList<Event>();
+        events = new EventRing(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Holds the only EventLog in the system; the JVM creates it safely
+     * the first time getInstance is called (Singleton Design Pattern).
+     */
+    private static class Holder {
+        private static final EventLog THE_LOG = new EventLog();
     }
 
     /**
@@ -30,18 +57,103 @@ public class EventLog implements Iterable<Event> {
      * @return  instance of EventLog
      */
     public static EventLog getInstance() {
-        if (theLog == null) {
-            theLog = new EventLog();
-        }
-        return theLog;
+        return Holder.THE_LOG;
     }
 
     /**
-     * Adds an event to the event log.
+     * Adds an event to the event log, overwriting the oldest
+     * event if the log is full. The event is discarded if its
+     * category is disabled.
      * @param e the event to be added
      */
     public void logEvent(Event e) {
-        events.add(e);
+        if ((loggedCategories() & e.getCategory().mask()) != 0) {
+            events.add(e);
+        }
+    }
+
+    /**
+     * Adds an event described by a template to the event log.
+     * The description is only built when the event is read.
+     * @param template  the template describing the event
+     */
+    public void logEvent(EventTemplate template) {
+        logEvent(template, null, null);
+    }
+
+    /**
+     * Adds an event described by a template to the event log.
+     * No Event object is created: the names are stored directly, and the
+     * description is only built when the event is read.
+     * @param template  the template describing the event
+     * @param bodyName  the name of the body the event is about, or null
+     * @param galaxyName  the name of the galaxy the event is about, or null
+     */
+    public void logEvent(EventTemplate template, String bodyName, String galaxyName) {
+        if ((loggedCategories() & template.getCategory().mask()) != 0) {
+            events.add(template, bodyName, galaxyName);
+        }
+    }
+
+    /**
+     * Gets the mask of categories currently being logged.
+     * @return  the enabled categories, less the per-object ones during a bulk load
+     */
+    private long loggedCategories() {
+        long mask = enabledCategories.get();
+        if (bulkLoadDepth.get()[0] > 0) {
+            mask &= ~BULK_SUPPRESSED;
+        }
+        return mask;
+    }
+
+    /**
+     * Starts a bulk load, discarding per-object events logged by this
+     * thread until it is closed. Bulk loads may be nested, and bulk loads
+     * on different threads do not affect each other.
+     * @return  the bulk load, to be closed on this thread when loading ends
+     */
+    public BulkLoad beginBulkLoad() {
+        enterBulkLoad();
+        return new BulkLoad(this);
+    }
+
+    /**
+     * Starts discarding per-object events logged by the current thread,
+     * for a bulk load it opens or joins.
+     */
+    void enterBulkLoad() {
+        bulkLoadDepth.get()[0]++;
+    }
+
+    /**
+     * Stops discarding per-object events logged by the current thread for
+     * one bulk load it opened or joined.
+     */
+    void endBulkLoad() {
+        bulkLoadDepth.get()[0]--;
+    }
+
+    /**
+     * Enables or disables logging of a category of events.
+     * @param category  the category to change
+     * @param enabled  true if events in the category should be logged
+     */
+    public void setEnabled(EventCategory category, boolean enabled) {
+        if (enabled) {
+            enabledCategories.getAndUpdate(mask -> mask | category.mask());
+        } else {
+            enabledCategories.getAndUpdate(mask -> mask & ~category.mask());
+        }
+    }
+
+    /**
+     * Checks whether a category of events is being logged.
+     * @param category  the category to check
+     * @return  true if events in the category are logged
+     */
+    public boolean isEnabled(EventCategory category) {
+        return (enabledCategories.get() & category.mask()) != 0;
     }
 
     /**
@@ -49,12 +161,101 @@ public class EventLog implements Iterable<Event> {
      */
     public void clear() {
         events.clear();
-        logEvent(new Event("Event log cleared."));
+        logEvent(EventTemplate.LOG_CLEARED);
+    }
+
+    /**
+     * Changes the maximum number of events kept, preserving the most
+     * recent events that still fit. Events logged by other threads while
+     * the log is being resized may be lost.
+     * @param capacity  the new capacity, must be positive
+     */
+    public void setCapacity(int capacity) {
+        EventRing current = events;
+        int kept = Math.min(current.size(), capacity);
+        EventRing resized = new EventRing(capacity, current.nextSequence() - kept);
+        current.forEachFrom(current.nextSequence() - kept, resized::add);
+        events = resized;
+    }
+
+    /**
+     * Gets the maximum number of events kept.
+     * @return  the capacity of the log
+     */
+    public int getCapacity() {
+        return events.capacity();
+    }
+
+    /**
+     * Gets the number of events currently in the log.
+     * @return  the number of events held
+     */
+    public int size() {
+        return events.size();
+    }
+
+    /**
+     * Gets the number of events overwritten since the log was last cleared.
+     * @return  the number of dropped events
+     */
+    public long getDroppedCount() {
+        return events.getDroppedCount();
+    }
+
+    /**
+     * Gets the position the next event logged will have. Positions keep
+     * increasing for the lifetime of the log, even across clear and setCapacity.
+     * @return  the position of the next event
+     */
+    public long getPosition() {
+        return events.nextSequence();
+    }
+
+    /**
+     * Passes the events logged at or after the given position to the consumer
+     * with their positions, oldest first. Events already overwritten are skipped.
+     * @param position  the position of the first event wanted
+     * @param consumer  the consumer receiving each event and its position
+     * @return  the position following the last event passed on
+     */
+    public long readFrom(long position, ObjLongConsumer<Event> consumer) {
+        return events.forEachNumberedFrom(position, consumer);
+    }
+
+    /**
+     * Gets the events logged within a time window, oldest first.
+     * @param from  the start of the window
+     * @param to  the end of the window (inclusive)
+     * @return  the events logged between from and to
+     */
+    public List<Event> eventsBetween(Date from, Date to) {
+        return events.between(from.getTime(), to.getTime());
+    }
+
+    /**
+     * Gets the events of a category still in the log, oldest first.
+     * @param category  the category wanted
+     * @return  the events in the category
+     */
+    public List<Event> eventsInCategory(EventCategory category) {
+        return index.inCategory(category, events);
+    }
+
+    /**
+     * Gets the events about a body still in the log, oldest first.
+     * @param bodyName  the name of the body
+     * @return  the events naming the body
+     */
+    public List<Event> eventsAbout(String bodyName) {
+        return index.about(bodyName, events);
     }
 
+    /**
+     * Returns a snapshot of the events in the log from oldest to newest.
+     * @return  an iterator over the logged events
+     */
     @Override
     public Iterator<Event> iterator() {
         return events.iterator();
     }
 }
-
@@ -0,0 +1,254 @@
+package model;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Represents a fixed-capacity ring buffer of events.
+ * The buffer is allocated once; when it is full, each new event
+ * overwrites the oldest one and is counted as dropped.
+ * Events are stored field by field in parallel arrays (time, template
+ * ordinal and name references) rather than as Event objects; an Event is
+ * only created again when it is read.
+ * Any number of threads may add events at the same time without locking:
+ * each producer claims a sequence number, waits until the event a lap
+ * earlier in its slot has been published, writes its slot, and then
+ * publishes the sequence number for that slot, so a slot's published
+ * sequence number only ever increases. Readers check that the published
+ * sequence number is unchanged after reading a slot.
+ */
+class EventRing implements Iterable<Event> {
+    private static final long WRITING = -1L;   // slot is being overwritten
+    private static final long EMPTY = -2L;     // slot has never held an event
+    private static final short NO_TEMPLATE = -1;
+    private static final EventTemplate[] TEMPLATES = EventTemplate.values();
+    private final int capacity;
+    private final long[] times;
+    private final short[] templates;
+    private final String[] bodyNames;
+    private final String[] galaxyNames;
+    private final String[] descriptions;      // only for events not described by a template
+    private final AtomicLongArray published;  // sequence number held by each slot
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final long initialSequence;       // sequence number of the first event ever added
+    private volatile long firstSequence;      // first sequence number since last clear
+
+    /**
+     * Creates an empty ring buffer.
+     * @param capacity  the maximum number of events held, must be positive
+     */
+    EventRing(int capacity) {
+        this(capacity, 0);
+    }
+
+    /**
+     * Creates an empty ring buffer whose first event gets the given sequence number.
+     * @param capacity  the maximum number of events held, must be positive
+     * @param firstSequence  the sequence number of the first event added
+     */
+    EventRing(int capacity, long firstSequence) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        times = new long[capacity];
+        templates = new short[capacity];
+        bodyNames = new String[capacity];
+        galaxyNames = new String[capacity];
+        descriptions = new String[capacity];
+        published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, EMPTY);
+        }
+        nextSequence.set(firstSequence);
+        initialSequence = firstSequence;
+        this.firstSequence = firstSequence;
+    }
+
+    /**
+     * Adds an event, overwriting the oldest event if the buffer is full.
+     * @param e  the event to be added
+     */
+    void add(Event e) {
+        EventTemplate template = e.getTemplate();
+        short ordinal = template == null ? NO_TEMPLATE : (short) template.ordinal();
+        add(e.getTimeLogged(), ordinal, e.getBodyName(), e.getGalaxyName(), e.getPresetDescription());
+    }
+
+    /**
+     * Adds an event described by a template, without creating an Event.
+     * @param template  the template describing the event
+     * @param bodyName  the name of the body the event is about, or null
+     * @param galaxyName  the name of the galaxy the event is about, or null
+     */
+    void add(EventTemplate template, String bodyName, String galaxyName) {
+        add(Event.currentTimeMillis(), (short) template.ordinal(), bodyName, galaxyName, null);
+    }
+
+    private void add(long time, short template, String bodyName, String galaxyName, String description) {
+        long sequence = nextSequence.getAndIncrement();
+        int index = (int) (sequence % capacity);
+        long previous = sequence - capacity < initialSequence ? EMPTY : sequence - capacity;
+        while (!published.compareAndSet(index, previous, WRITING)) {
+            Thread.onSpinWait();     // the producer a lap behind has not published yet
+        }
+        VarHandle.releaseFence();
+        times[index] = time;
+        templates[index] = template;
+        bodyNames[index] = bodyName;
+        galaxyNames[index] = galaxyName;
+        descriptions[index] = description;
+        published.set(index, sequence);
+    }
+
+    /**
+     * Removes all events and resets the dropped event counter.
+     * Slots are not wiped; they are overwritten as new events arrive.
+     */
+    void clear() {
+        firstSequence = nextSequence.get();
+    }
+
+    int size() {
+        return (int) Math.min(nextSequence.get() - firstSequence, capacity);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    long nextSequence() {
+        return nextSequence.get();
+    }
+
+    /**
+     * Gets the sequence number of the oldest event still held.
+     * @return  the oldest sequence number that has not been cleared or overwritten
+     */
+    long firstAvailable() {
+        return Math.max(firstSequence, nextSequence.get() - capacity);
+    }
+
+    /**
+     * Gets the event with the given sequence number.
+     * @param sequence  the sequence number of the event
+     * @return  the event, or null if it has not been logged, was cleared or was overwritten
+     */
+    Event get(long sequence) {
+        if (sequence < firstAvailable() || sequence >= nextSequence.get()) {
+            return null;
+        }
+        return read(sequence);
+    }
+
+    /**
+     * Gets the events logged within a time window, oldest first.
+     * Every event held is checked: times are not guaranteed to follow
+     * sequence order, since an added Event keeps the time it was created
+     * at and producers racing for sequence numbers may read the clock
+     * in either order.
+     * @param fromMillis  the start of the window in milliseconds since the epoch
+     * @param toMillis  the end of the window (inclusive)
+     * @return  the events in the window
+     */
+    List<Event> between(long fromMillis, long toMillis) {
+        List<Event> found = new ArrayList<>();
+        forEachFrom(firstSequence, e -> {
+            if (e.getTimeLogged() >= fromMillis && e.getTimeLogged() <= toMillis) {
+                found.add(e);
+            }
+        });
+        return found;
+    }
+
+    long getDroppedCount() {
+        return Math.max(0, nextSequence.get() - firstSequence - capacity);
+    }
+
+    /**
+     * Returns a snapshot of the events from oldest to newest.
+     * Events logged after this call are not included, and events
+     * overwritten while the snapshot is taken are skipped.
+     * @return  an iterator over the events in chronological order
+     */
+    @Override
+    public Iterator<Event> iterator() {
+        List<Event> snapshot = new ArrayList<>(size());
+        forEachFrom(firstSequence, snapshot::add);
+        return snapshot.iterator();
+    }
+
+    /**
+     * Passes the events from the given sequence number onwards to the
+     * consumer, oldest first. Events that have already been overwritten
+     * are skipped.
+     * @param from  the sequence number of the first event wanted
+     * @param consumer  the consumer receiving the events
+     * @return  the sequence number following the last event passed on
+     */
+    long forEachFrom(long from, Consumer<Event> consumer) {
+        return forEachNumberedFrom(from, (e, sequence) -> consumer.accept(e));
+    }
+
+    /**
+     * Passes the events from the given sequence number onwards to the
+     * consumer with their sequence numbers, oldest first. Events that
+     * have already been overwritten are skipped.
+     * @param from  the sequence number of the first event wanted
+     * @param consumer  the consumer receiving each event and its sequence number
+     * @return  the sequence number following the last event passed on
+     */
+    long forEachNumberedFrom(long from, ObjLongConsumer<Event> consumer) {
+        long end = nextSequence.get();
+        long start = Math.max(from, Math.max(firstSequence, end - capacity));
+        for (long sequence = start; sequence < end; sequence++) {
+            Event e = read(sequence);
+            if (e != null) {
+                consumer.accept(e, sequence);
+            }
+        }
+        return Math.max(from, end);
+    }
+
+    /**
+     * Reads the event with the given sequence number, waiting for a
+     * producer that has claimed it but not yet published it.
+     * @param sequence  the sequence number to read
+     * @return  the event, or null if it has already been overwritten
+     */
+    private Event read(long sequence) {
+        int index = (int) (sequence % capacity);
+        while (true) {
+            long before = published.get(index);
+            if (before > sequence) {
+                return null;
+            }
+            if (before == sequence) {
+                Event e = materialize(index);
+                VarHandle.acquireFence();
+                if (published.get(index) == sequence) {
+                    return e;
+                }
+                return null;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Creates an Event from the fields stored in a slot.
+     * @param index  the index of the slot
+     * @return  the event held in the slot
+     */
+    private Event materialize(int index) {
+        short template = templates[index];
+        return new Event(times[index], template == NO_TEMPLATE ? null : TEMPLATES[template],
+                bodyNames[index], galaxyNames[index], descriptions[index]);
+    }
+}
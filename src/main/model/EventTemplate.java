@@ -0,0 +1,70 @@
+package model;
+
+/**
+ * Represents the fixed descriptions used for galaxy events.
+ * A description is the template text followed by the event's body name
+ * or galaxy name (if the template names one), and is only built when it
+ * is first needed.
+ */
+public enum EventTemplate {
+    GALAXY_CREATED(EventCategory.GALAXY_CREATED, "Created Galaxy: ", Subject.GALAXY),
+    GALAXY_RENAMED(EventCategory.GALAXY_RENAMED, "Changed galaxy's name to ", Subject.GALAXY),
+    GALAXY_WRITTEN(EventCategory.GALAXY_SAVED, "Wrote galaxy to JSon", Subject.NONE),
+    GALAXY_SAVED(EventCategory.GALAXY_SAVED, "Saved galaxy", Subject.NONE),
+    GALAXY_LOADED(EventCategory.GALAXY_LOADED, "Loaded galaxy", Subject.NONE),
+    SOLAR_SYSTEM_CREATED(EventCategory.BODY_CREATED, "Created solar system: ", Subject.BODY),
+    SOLAR_SYSTEM_ADDED(EventCategory.SOLAR_SYSTEM_ADDED, "Added solar system to galaxy", Subject.NONE),
+    SOLAR_SYSTEM_REMOVED(EventCategory.SOLAR_SYSTEM_REMOVED, "Removed solar system from galaxy", Subject.NONE),
+    SOLAR_SYSTEMS_WRITTEN(EventCategory.GALAXY_SAVED, "Wrote solar systems to JSon", Subject.NONE),
+    PLANET_CREATED(EventCategory.BODY_CREATED, "Created planet: ", Subject.BODY),
+    PLANET_ADDED(EventCategory.PLANET_ADDED, "Added planet to solar system", Subject.NONE),
+    PLANET_REMOVED(EventCategory.PLANET_REMOVED, "Removed planet from solar system", Subject.NONE),
+    PLANETS_CLEARED(EventCategory.PLANET_REMOVED, "Cleared planets from solar system", Subject.NONE),
+    BINARY_CREATED(EventCategory.BODY_CREATED, "Created Binary System: ", Subject.BODY),
+    BLACK_HOLE_CREATED(EventCategory.BODY_CREATED, "Created Black Hole: ", Subject.BODY),
+    GIANT_STAR_CREATED(EventCategory.BODY_CREATED, "Created Giant star: ", Subject.BODY),
+    NEUTRON_STAR_CREATED(EventCategory.BODY_CREATED, "Created neutron star: ", Subject.BODY),
+    WHITE_DWARF_CREATED(EventCategory.BODY_CREATED, "Created white dwarf star: ", Subject.BODY),
+    BODY_RENAMED(EventCategory.BODY_RENAMED, "Changed body's name to ", Subject.BODY),
+    LOG_CLEARED(EventCategory.GENERAL, "Event log cleared.", Subject.NONE);
+
+    // which of an event's names is appended to the template text
+    private enum Subject {
+        NONE, BODY, GALAXY
+    }
+
+    private final EventCategory category;
+    private final String text;
+    private final Subject subject;
+
+    EventTemplate(EventCategory category, String text, Subject subject) {
+        this.category = category;
+        this.text = text;
+        this.subject = subject;
+    }
+
+    /**
+     * Builds the description for an event using this template.
+     * @param bodyName  the name of the body the event is about, or null
+     * @param galaxyName  the name of the galaxy the event is about, or null
+     * @return  the full event description
+     */
+    public String render(String bodyName, String galaxyName) {
+        switch (subject) {
+            case BODY:
+                return text + bodyName;
+            case GALAXY:
+                return text + galaxyName;
+            default:
+                return text;
+        }
+    }
+
+    public EventCategory getCategory() {
+        return category;
+    }
+
+    public String getText() {
+        return text;
+    }
+}
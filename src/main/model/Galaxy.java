@@ -5,13 +5,23 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import persistence.Writable;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 // Class to represent a galaxy with SolarSystems and a name
 public class Galaxy implements Writable {
     private String name;
     private HashMap<String, SolarSystem> solarSystems;
     private int solarSystemCount;
+    private SolarSystemSource source;   // solar systems not loaded yet, or null
+    private Set<String> removedFromSource;
+    private boolean nameChanged;
+    private Set<SolarSystem> changedSolarSystems = new LinkedHashSet<>();
+    private Set<String> removedSolarSystemNames = new LinkedHashSet<>();
+    private GalaxyListener listener;
 
     // EFFECT: construct a galaxy with no solar systems and a given name
     public Galaxy(String name) {
@@ -19,7 +29,16 @@ public class Galaxy implements Writable {
         solarSystemCount = 0;
         solarSystems = new HashMap<>();
 
-        EventLog.getInstance().logEvent(new Event("Created Galaxy: " + name));
+        EventLog.getInstance().logEvent(EventTemplate.GALAXY_CREATED, null, name);
+    }
+
+    // EFFECT: construct a galaxy with a given name whose solar systems are loaded
+    //         from source the first time each one is used
+    public Galaxy(String name, SolarSystemSource source) {
+        this(name);
+        this.source = source;
+        removedFromSource = new HashSet<>();
+        solarSystemCount = source.names().size();
     }
 
     // MODIFIES: this
@@ -28,11 +47,16 @@ public class Galaxy implements Writable {
     public void addSolarSystem(SolarSystem solarSystem) throws NameAlreadyUsedException {
         String solarSystemName = solarSystem.getName();
         
-        if (solarSystems.get(solarSystemName) == null) {
+        if (!hasSolarSystem(solarSystemName)) {
             solarSystems.put(solarSystemName, solarSystem);
             solarSystemCount = solarSystemCount + 1;
+            solarSystem.setGalaxy(this);
+            solarSystemChanged(solarSystem);
+            if (listener != null) {
+                listener.solarSystemAdded(this, solarSystem);
+            }
 
-            EventLog.getInstance().logEvent(new Event("Added solar system to galaxy"));
+            EventLog.getInstance().logEvent(EventTemplate.SOLAR_SYSTEM_ADDED, solarSystemName, name);
         } else {
             throw new NameAlreadyUsedException();
         }
@@ -42,21 +66,147 @@ public class Galaxy implements Writable {
     // MODIFIES: this
     // EFFECT: remove a solar system from the galaxy based on name
     public void removeSolarSystem(String solarSystemName) {
-        solarSystems.remove(solarSystemName);
+        SolarSystem removed = solarSystems.remove(solarSystemName);
+        if (removed != null) {
+            removed.setGalaxy(null);
+            changedSolarSystems.remove(removed);
+        }
+        removedSolarSystemNames.add(solarSystemName);
+        if (source != null && source.names().contains(solarSystemName)) {
+            removedFromSource.add(solarSystemName);
+        }
+        if (listener != null) {
+            listener.solarSystemRemoved(this, solarSystemName);
+        }
         solarSystemCount = solarSystemCount - 1;
-        EventLog.getInstance().logEvent(new Event("Removed solar system from galaxy"));
+        EventLog.getInstance().logEvent(EventTemplate.SOLAR_SYSTEM_REMOVED, solarSystemName, name);
     }
 
     // MODIFIES: this
     // EFFECT: change the galaxies name
     public void changeName(String newName) {
         this.name = newName;
-        EventLog.getInstance().logEvent(new Event("Changed galaxy's name to " + name));
+        nameChanged = true;
+        if (listener != null) {
+            listener.galaxyRenamed(this);
+        }
+        EventLog.getInstance().logEvent(EventTemplate.GALAXY_RENAMED, null, name);
     }
 
-    // EFFECT: return a solar system based on it's name
+    // EFFECT: return a solar system based on it's name, loading it from the source if needed
     public SolarSystem getSolarSystem(String solarSystemName) {
-        return solarSystems.get(solarSystemName);
+        SolarSystem solarSystem = solarSystems.get(solarSystemName);
+        if (solarSystem == null && isInSource(solarSystemName)) {
+            solarSystem = source.load(solarSystemName);
+            solarSystem.setGalaxy(this);
+            solarSystems.put(solarSystemName, solarSystem);
+        }
+        return solarSystem;
+    }
+
+    // EFFECT: return true if the galaxy has a solar system with the given name, without loading it
+    public boolean hasSolarSystem(String solarSystemName) {
+        return solarSystems.containsKey(solarSystemName) || isInSource(solarSystemName);
+    }
+
+    // EFFECT: return true if some solar systems have not been loaded from the source yet
+    public boolean hasUnloadedSolarSystems() {
+        return source != null;
+    }
+
+    // EFFECT: return true if the named solar system is still waiting in the source
+    private boolean isInSource(String solarSystemName) {
+        return source != null && !solarSystems.containsKey(solarSystemName)
+                && source.names().contains(solarSystemName) && !removedFromSource.contains(solarSystemName);
+    }
+
+    // MODIFIES: this
+    // EFFECT: loads every solar system still waiting in the source
+    private void loadAll() {
+        if (source == null) {
+            return;
+        }
+        for (String solarSystemName : source.names()) {
+            if (isInSource(solarSystemName)) {
+                getSolarSystem(solarSystemName);
+            }
+        }
+        source = null;
+        removedFromSource = null;
+    }
+
+    // MODIFIES: this
+    // EFFECT: records that a solar system in this galaxy has changed since the galaxy was last saved
+    void solarSystemChanged(SolarSystem solarSystem) {
+        changedSolarSystems.add(solarSystem);
+    }
+
+    // REQUIRES: no other solar system in this galaxy has the solar system's new name
+    // MODIFIES: this
+    // EFFECT: files a renamed solar system under its new name,
+    //         and records that it no longer has its old name
+    void solarSystemRenamed(String oldName, SolarSystem solarSystem) {
+        if (solarSystems.remove(oldName) != null) {
+            solarSystems.put(solarSystem.getName(), solarSystem);
+        }
+        if (source != null) {
+            removedFromSource.add(oldName);
+        }
+        removedSolarSystemNames.add(oldName);
+        changedSolarSystems.add(solarSystem);
+    }
+
+    // MODIFIES: this
+    // EFFECT: sets the listener told about every change to this galaxy and its solar systems,
+    //         or null for none
+    public void setListener(GalaxyListener listener) {
+        this.listener = listener;
+    }
+
+    GalaxyListener getListener() {
+        return listener;
+    }
+
+    // EFFECT: return true if the galaxy has changed since it was last saved
+    public boolean isDirty() {
+        return nameChanged || !changedSolarSystems.isEmpty() || !removedSolarSystemNames.isEmpty();
+    }
+
+    // EFFECT: return true if the galaxy has been renamed since it was last saved
+    public boolean isNameChanged() {
+        return nameChanged;
+    }
+
+    // EFFECT: return the solar systems added or changed since the galaxy was last saved
+    public Set<SolarSystem> getChangedSolarSystems() {
+        return Collections.unmodifiableSet(changedSolarSystems);
+    }
+
+    // EFFECT: return the names of the solar systems removed since the galaxy was last saved;
+    //         a name that was removed and then used again is in both sets
+    public Set<String> getRemovedSolarSystemNames() {
+        return Collections.unmodifiableSet(removedSolarSystemNames);
+    }
+
+    // MODIFIES: this
+    // EFFECT: records that the galaxy and all its loaded solar systems have changed since they were
+    //         last saved, such as after a save that was thought to cover them fails
+    public void markDirty() {
+        nameChanged = true;
+        for (SolarSystem s : solarSystems.values()) {
+            s.markDirty();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECT: records that the galaxy and all its solar systems have been saved
+    public void clearDirty() {
+        for (SolarSystem s : changedSolarSystems) {
+            s.clearDirty();
+        }
+        nameChanged = false;
+        changedSolarSystems.clear();
+        removedSolarSystemNames.clear();
     }
 
     // EFFECT: write galaxy data to a JSON object
@@ -67,7 +217,7 @@ public class Galaxy implements Writable {
         json.put("solarSystemCount", solarSystemCount);
         json.put("solarSystems", solarSystemsToJson());
 
-        EventLog.getInstance().logEvent(new Event("Wrote galaxy to JSon"));
+        EventLog.getInstance().logEvent(EventTemplate.GALAXY_WRITTEN, null, name);
 
         return json;
     }
@@ -76,17 +226,19 @@ public class Galaxy implements Writable {
     private JSONArray solarSystemsToJson() {
         JSONArray jsonArray = new JSONArray();
 
-        for (SolarSystem s : solarSystems.values()) {
+        for (SolarSystem s : getSolarSystems().values()) {
             jsonArray.put(s.toJson());
         }
 
-        EventLog.getInstance().logEvent(new Event("Wrote solar systems to JSon"));
+        EventLog.getInstance().logEvent(EventTemplate.SOLAR_SYSTEMS_WRITTEN, null, name);
 
         return jsonArray;
     }
 
     // getters
+    // EFFECT: return all solar systems, loading any still waiting in the source
     public HashMap<String, SolarSystem> getSolarSystems() {
+        loadAll();
         return solarSystems;
     }
 
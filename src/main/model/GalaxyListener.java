@@ -0,0 +1,26 @@
+package model;
+
+// Represents an observer told about every change made to a galaxy and its solar systems,
+// after the change has been made
+public interface GalaxyListener {
+    // EFFECTS: called after galaxy has been renamed
+    void galaxyRenamed(Galaxy galaxy);
+
+    // EFFECTS: called after solarSystem has been added to galaxy
+    void solarSystemAdded(Galaxy galaxy, SolarSystem solarSystem);
+
+    // EFFECTS: called after the named solar system has been removed from galaxy
+    void solarSystemRemoved(Galaxy galaxy, String solarSystemName);
+
+    // EFFECTS: called after solarSystem, which was called oldName, has been renamed
+    void solarSystemRenamed(SolarSystem solarSystem, String oldName);
+
+    // EFFECTS: called after planet has been added to solarSystem
+    void planetAdded(SolarSystem solarSystem, Planet planet);
+
+    // EFFECTS: called after the named planet has been removed from solarSystem
+    void planetRemoved(SolarSystem solarSystem, String planetName);
+
+    // EFFECTS: called after all planets have been removed from solarSystem
+    void planetsCleared(SolarSystem solarSystem);
+}
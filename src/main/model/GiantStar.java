@@ -16,7 +16,7 @@ public class GiantStar extends Star {
         this.name = name;
         this.centralBodyType = "Giant Star";
 
-        EventLog.getInstance().logEvent(new Event("Created Giant star: " + name));
+        EventLog.getInstance().logEvent(EventTemplate.GIANT_STAR_CREATED, name, null);
     }
 
     // EFFECT: constructs giant star with all data given
@@ -28,7 +28,7 @@ public class GiantStar extends Star {
         this.centralBodyType = centralBodyType;
         this.luminosity = luminosity;
 
-        EventLog.getInstance().logEvent(new Event("Created Giant star: " + name));
+        EventLog.getInstance().logEvent(EventTemplate.GIANT_STAR_CREATED, name, null);
     }
 
     // EFFECT: returns true because giant stars can go supernova
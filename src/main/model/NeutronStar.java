@@ -11,7 +11,7 @@ public class NeutronStar extends Star {
         this.centralBodyType = "Neutron Star";
         this.name = name;
 
-        EventLog.getInstance().logEvent(new Event("Created neutron star: " + name));
+        EventLog.getInstance().logEvent(EventTemplate.NEUTRON_STAR_CREATED, name, null);
     }
 
     // EFFECT: constructs neutron star with all data given
@@ -22,7 +22,7 @@ public class NeutronStar extends Star {
         this.name = name;
         this.centralBodyType = centralBodyType;
 
-        EventLog.getInstance().logEvent(new Event("Created neutron star: " + name));
+        EventLog.getInstance().logEvent(EventTemplate.NEUTRON_STAR_CREATED, name, null);
     }
 
     // EFFECT: returns false because neutron stars cannot go supernova
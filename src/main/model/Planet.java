@@ -23,7 +23,7 @@ public class Planet extends Body implements Writable {
         this.rocky = true;
         this.mass = calculateMass(this.rocky, 1);
 
-        EventLog.getInstance().logEvent(new Event("Created planet: " + name));
+        EventLog.getInstance().logEvent(EventTemplate.PLANET_CREATED, name, null);
     }
 
     // REQUIRES: radius and orbitSize must be positive
@@ -42,7 +42,7 @@ public class Planet extends Body implements Writable {
             this.mass = calculateMass(false, this.radius);
         }
 
-        EventLog.getInstance().logEvent(new Event("Created planet: " + name));
+        EventLog.getInstance().logEvent(EventTemplate.PLANET_CREATED, name, null);
     }
 
     // REQUIRES: radius and orbitSize must be positive
@@ -56,7 +56,7 @@ public class Planet extends Body implements Writable {
         this.moon = isMoon;
         this.rocky = isRocky;
 
-        EventLog.getInstance().logEvent(new Event("Created planet: " + name));
+        EventLog.getInstance().logEvent(EventTemplate.PLANET_CREATED, name, null);
     }
 
 
@@ -2,6 +2,7 @@ package model;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import persistence.CentralBodyCodecs;
 import persistence.Writable;
 
 import java.util.HashMap;
@@ -12,6 +13,8 @@ public class SolarSystem extends Body implements Writable {
     private HashMap<String, Planet> planets;  // planet list, key is planet name
     private int planetCount;
     private String planetName;
+    private Galaxy galaxy;  // galaxy holding this solar system, told about its changes
+    private boolean dirty;
 
     // MODIFIES: this
     // EFFECTS: construct a solar system with a given central body, name and no planets
@@ -21,7 +24,7 @@ public class SolarSystem extends Body implements Writable {
         planetCount = 0;
         this.name = name;
 
-        EventLog.getInstance().logEvent(new Event("Created solar system: " + name));
+        EventLog.getInstance().logEvent(EventTemplate.SOLAR_SYSTEM_CREATED, name, null);
     }
 
     // MODIFIES: this
@@ -38,8 +41,9 @@ public class SolarSystem extends Body implements Writable {
                 planetName = newPlanet.getName();
                 planets.remove(p.getName());
                 planets.put(planetName, newPlanet);
+                planetAdded(planet);
 
-                EventLog.getInstance().logEvent(new Event("Added planet to solar system"));
+                EventLog.getInstance().logEvent(EventTemplate.PLANET_ADDED, planetName, null);
 
                 return true;
             }
@@ -47,8 +51,9 @@ public class SolarSystem extends Body implements Writable {
         planetName = planet.getName();
         planets.put(planetName, planet);
         planetCount++;
+        planetAdded(planet);
 
-        EventLog.getInstance().logEvent(new Event("Added planet to solar system"));
+        EventLog.getInstance().logEvent(EventTemplate.PLANET_ADDED, planetName, null);
 
         return false;
     }
@@ -60,8 +65,12 @@ public class SolarSystem extends Body implements Writable {
     public void removePlanet(String planetName) {
         planets.remove(planetName);
         planetCount--;
+        markDirty();
+        if (listener() != null) {
+            listener().planetRemoved(this, planetName);
+        }
 
-        EventLog.getInstance().logEvent(new Event("Removed planet from solar system"));
+        EventLog.getInstance().logEvent(EventTemplate.PLANET_REMOVED, planetName, null);
     }
 
     // EFFECT: returns true if two planets would collide (have the same radius)
@@ -77,8 +86,68 @@ public class SolarSystem extends Body implements Writable {
     public void clearPlanets() {
         planets.clear();
         planetCount = 0;
+        markDirty();
+        if (listener() != null) {
+            listener().planetsCleared(this);
+        }
+
+        EventLog.getInstance().logEvent(EventTemplate.PLANETS_CLEARED, name, null);
+    }
+
+    // MODIFIES: this
+    // EFFECT: change the solar system's name, which the galaxy holding it saves
+    //         as removing the old name and adding the new one
+    @Override
+    public void changeName(String newName) {
+        String oldName = name;
+        super.changeName(newName);
+        if (galaxy != null) {
+            galaxy.solarSystemRenamed(oldName, this);
+        }
+        markDirty();
+        if (listener() != null) {
+            listener().solarSystemRenamed(this, oldName);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECT: records that planet has been added, or merged into a planet it collided with
+    private void planetAdded(Planet planet) {
+        markDirty();
+        if (listener() != null) {
+            listener().planetAdded(this, planet);
+        }
+    }
 
-        EventLog.getInstance().logEvent(new Event("Cleared planets from solar system"));
+    // EFFECT: return the listener of the galaxy holding this solar system, or null if there is none
+    private GalaxyListener listener() {
+        return galaxy == null ? null : galaxy.getListener();
+    }
+
+    // MODIFIES: this
+    // EFFECT: records that this solar system has changed since it was last saved
+    void markDirty() {
+        dirty = true;
+        if (galaxy != null) {
+            galaxy.solarSystemChanged(this);
+        }
+    }
+
+    // EFFECT: return true if this solar system has changed since it was last saved
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    // MODIFIES: this
+    // EFFECT: records that this solar system has been saved
+    void clearDirty() {
+        dirty = false;
+    }
+
+    // MODIFIES: this
+    // EFFECT: sets the galaxy told about this solar system's changes, or null for none
+    void setGalaxy(Galaxy galaxy) {
+        this.galaxy = galaxy;
     }
 
     // REQUIRES: planet must be in solar system
@@ -108,18 +177,7 @@ public class SolarSystem extends Body implements Writable {
     }
 
     private JSONObject centralBodyToJson() {
-        JSONObject json = new JSONObject();
-        json.put("name", centralBody.getName());
-        json.put("centralBodyType", centralBody.getCentralBodyType());
-        json.put("mass", centralBody.getMass());
-        json.put("radius", centralBody.getRadius());
-        if (centralBody.getCentralBodyType().equals("Giant Star")) {
-            GiantStar giantStar = (GiantStar) centralBody;
-            json.put("luminosity", giantStar.getLuminosity());
-        }
-
-
-        return json;
+        return CentralBodyCodecs.toJson(centralBody);
     }
 
     // getters
@@ -0,0 +1,13 @@
+package model;
+
+import java.util.Set;
+
+// Represents a store of solar systems that a galaxy loads one at a time, when first used
+public interface SolarSystemSource {
+    // EFFECTS: returns the names of the solar systems in the store
+    Set<String> names();
+
+    // REQUIRES: name is one of names()
+    // EFFECTS: builds and returns the solar system with the given name
+    SolarSystem load(String name);
+}
@@ -11,7 +11,7 @@ public class WhiteDwarf extends Star {
         this.name = name;
         this.centralBodyType = "White Dwarf";
 
-        EventLog.getInstance().logEvent(new Event("Created white dwarf star: " + name));
+        EventLog.getInstance().logEvent(EventTemplate.WHITE_DWARF_CREATED, name, null);
     }
 
     // EFFECT: constructs white dwarf with all data given
@@ -22,7 +22,7 @@ public class WhiteDwarf extends Star {
         this.name = name;
         this.centralBodyType = centralBodyType;
 
-        EventLog.getInstance().logEvent(new Event("Created white dwarf star: " + name));
+        EventLog.getInstance().logEvent(EventTemplate.WHITE_DWARF_CREATED, name, null);
     }
 
     // REQUIRES: must be in a binary
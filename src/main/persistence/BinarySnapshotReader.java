@@ -0,0 +1,118 @@
+package persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// Represents a reader that reads galaxy from a binary snapshot file written by BinarySnapshotWriter
+public class BinarySnapshotReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private String source;
+
+    // EFFECTS: constructs reader to read from source file
+    public BinarySnapshotReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: reads galaxy from file and returns it, logging one summary event
+    //          instead of an event for every body;
+    // throws IOException if an error occurs reading data from file or it is not a snapshot
+    public Galaxy read() throws IOException {
+        try (BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad();
+             DataInputStream in = new DataInputStream(
+                     new BufferedInputStream(new FileInputStream(source), BUFFER_SIZE))) {
+            readHeader(in);
+            int galaxyName = in.readInt();
+            int[] names = new int[in.readInt()];
+            int stringCount = in.readInt();
+            for (int i = 0; i < stringCount; i++) {
+                in.readLong();
+            }
+            for (int i = 0; i < names.length; i++) {
+                names[i] = in.readInt();
+                in.readLong();
+            }
+            String[] strings = readStrings(in, stringCount);
+            Galaxy galaxy = new Galaxy(strings[galaxyName]);
+            for (int name : names) {
+                addSolarSystem(galaxy, readSolarSystem(in, strings, strings[name]));
+            }
+            bulkLoad.setGalaxy(galaxy);
+            return galaxy;
+        }
+    }
+
+    // EFFECTS: checks the magic number and version; throws IOException if they do not match
+    static void readHeader(DataInput in) throws IOException {
+        if (in.readInt() != BinarySnapshotWriter.MAGIC) {
+            throw new IOException("Not a galaxy snapshot");
+        }
+        short version = in.readShort();
+        if (version != BinarySnapshotWriter.VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+    }
+
+    // EFFECTS: reads the given number of strings
+    static String[] readStrings(DataInput in, int count) throws IOException {
+        String[] strings = new String[count];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    // EFFECTS: reads the record for a solar system with the given name and its planets
+    static SolarSystem readSolarSystem(DataInput in, String[] strings, String name) throws IOException {
+        SolarSystem solarSystem = new SolarSystem(name, CentralBodyCodecs.decode(readCentralBody(in, strings)));
+        int planetCount = in.readInt();
+        for (int i = 0; i < planetCount; i++) {
+            String planetName = strings[in.readInt()];
+            double planetMass = in.readDouble();
+            double planetRadius = in.readDouble();
+            double orbitSize = in.readDouble();
+            byte flags = in.readByte();
+            solarSystem.addPlanet(new Planet(planetName, planetRadius, planetMass, orbitSize,
+                    (flags & BinarySnapshotWriter.MOON) != 0, (flags & BinarySnapshotWriter.ROCKY) != 0));
+        }
+        return solarSystem;
+    }
+
+    // EFFECTS: reads the record for a central body and the records of its components;
+    //          throws IOException if its tag has no codec
+    static CentralBodyFields readCentralBody(DataInput in, String[] strings) throws IOException {
+        CentralBodyFields fields = new CentralBodyFields();
+        byte tag = in.readByte();
+        fields.codec = CentralBodyCodecs.forTag(tag);
+        if (fields.codec == null) {
+            throw new IOException("Unknown central body tag " + tag);
+        }
+        fields.name = strings[in.readInt()];
+        fields.mass = in.readDouble();
+        fields.radius = in.readDouble();
+        fields.luminosity = in.readDouble();
+        fields.components = new CentralBodyFields[fields.codec.getComponentCount()];
+        for (int i = 0; i < fields.components.length; i++) {
+            fields.components[i] = readCentralBody(in, strings);
+        }
+        return fields;
+    }
+
+    // MODIFIES: galaxy
+    // EFFECTS: adds solar system to galaxy
+    private void addSolarSystem(Galaxy galaxy, SolarSystem solarSystem) {
+        try {
+            galaxy.addSolarSystem(solarSystem);
+        } catch (NameAlreadyUsedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package persistence;
+
+import model.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents a writer that writes galaxy to a compact binary snapshot file.
+// Layout (big-endian):
+//   header:       magic, version
+//   galaxy:       name index, solar system count
+//   string index: string count, then the file offset of each string
+//   directory:    for each solar system in order of name, its name index and the file offset
+//                 of its record
+//   strings:      each string as a length and UTF-8 bytes
+//   records:      for each solar system in directory order, a fixed-width central body record,
+//                 the planet count and a fixed-width record per planet
+// A central body record starts with the tag of its codec in CentralBodyCodecs and is followed
+// by the records of its components, if it has any.
+// Names are stored once in the string table and referred to by index. The string index and the
+// sorted directory have fixed-width entries, so a solar system can be found, and any string
+// decoded, without reading the rest of the file.
+public class BinarySnapshotWriter {
+    static final int MAGIC = 0x47414C58;   // "GALX"
+    static final short VERSION = 3;
+    static final int CENTRAL_BODY_BYTES = 1 + 4 + 3 * 8;
+    static final int PLANET_BYTES = 4 + 3 * 8 + 1;
+    static final int STRING_INDEX_ENTRY_BYTES = 8;
+    static final int DIRECTORY_ENTRY_BYTES = 4 + 8;
+    static final byte MOON = 1;
+    static final byte ROCKY = 2;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private String destination;
+    private DataOutputStream out;
+
+    // EFFECTS: constructs writer to write to destination file
+    public BinarySnapshotWriter(String destination) {
+        this.destination = destination;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws IOException if destination file cannot be opened for writing
+    public void open() throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(destination), BUFFER_SIZE));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes binary snapshot of galaxy to file; throws IOException if the file cannot be written
+    public void write(Galaxy galaxy) throws IOException {
+        List<SolarSystem> solarSystems = new ArrayList<>(galaxy.getSolarSystems().values());
+        solarSystems.sort(Comparator.comparing(SolarSystem::getName));
+        List<CentralBodyFields> centralBodies = new ArrayList<>();
+        for (SolarSystem s : solarSystems) {
+            centralBodies.add(CentralBodyCodecs.encode(s.getCentralBody()));
+        }
+        Map<String, Integer> strings = buildStringTable(galaxy, solarSystems, centralBodies);
+        List<byte[]> utf8 = new ArrayList<>();
+        for (String s : strings.keySet()) {
+            utf8.add(s.getBytes(StandardCharsets.UTF_8));
+        }
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(strings.get(galaxy.getName()));
+        out.writeInt(solarSystems.size());
+        long offset = writeStringIndex(utf8, (long) solarSystems.size() * DIRECTORY_ENTRY_BYTES);
+        writeDirectory(solarSystems, centralBodies, strings, offset);
+        writeStrings(utf8);
+        for (int i = 0; i < solarSystems.size(); i++) {
+            writeCentralBody(centralBodies.get(i), strings);
+            writePlanets(solarSystems.get(i), strings);
+        }
+
+        EventLog.getInstance().logEvent(EventTemplate.GALAXY_SAVED, null, galaxy.getName());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer; throws IOException if the remaining data cannot be written
+    public void close() throws IOException {
+        out.close();
+    }
+
+    // EFFECTS: returns every name in the galaxy, each mapped to its index
+    private Map<String, Integer> buildStringTable(Galaxy galaxy, List<SolarSystem> solarSystems,
+                                                  List<CentralBodyFields> centralBodies) {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        strings.putIfAbsent(galaxy.getName(), strings.size());
+        for (int i = 0; i < solarSystems.size(); i++) {
+            strings.putIfAbsent(solarSystems.get(i).getName(), strings.size());
+            addCentralBodyNames(centralBodies.get(i), strings);
+            for (Planet p : solarSystems.get(i).getPlanets().values()) {
+                strings.putIfAbsent(p.getName(), strings.size());
+            }
+        }
+        return strings;
+    }
+
+    // MODIFIES: strings
+    // EFFECTS: adds the names of a central body and its components to strings
+    private void addCentralBodyNames(CentralBodyFields fields, Map<String, Integer> strings) {
+        strings.putIfAbsent(fields.name, strings.size());
+        for (int i = 0; i < fields.codec.getComponentCount(); i++) {
+            addCentralBodyNames(fields.components[i], strings);
+        }
+    }
+
+    // EFFECTS: returns the size of the record of a central body and its components
+    private static int centralBodyBytes(CentralBodyFields fields) {
+        int bytes = CENTRAL_BODY_BYTES;
+        for (int i = 0; i < fields.codec.getComponentCount(); i++) {
+            bytes += centralBodyBytes(fields.components[i]);
+        }
+        return bytes;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the string count and the file offset of each string, given that the
+    //          strings follow a directory of directoryBytes, and returns the offset just past them
+    private long writeStringIndex(List<byte[]> utf8, long directoryBytes) throws IOException {
+        out.writeInt(utf8.size());
+        long offset = out.size() + (long) utf8.size() * STRING_INDEX_ENTRY_BYTES + directoryBytes;
+        for (byte[] bytes : utf8) {
+            out.writeLong(offset);
+            offset += 4 + bytes.length;
+        }
+        return offset;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the directory entry of each solar system, whose records start at offset
+    private void writeDirectory(List<SolarSystem> solarSystems, List<CentralBodyFields> centralBodies,
+                                Map<String, Integer> strings, long offset) throws IOException {
+        for (int i = 0; i < solarSystems.size(); i++) {
+            SolarSystem s = solarSystems.get(i);
+            out.writeInt(strings.get(s.getName()));
+            out.writeLong(offset);
+            offset += centralBodyBytes(centralBodies.get(i)) + 4 + (long) s.getPlanets().size() * PLANET_BYTES;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes each string as its length and UTF-8 bytes
+    private void writeStrings(List<byte[]> utf8) throws IOException {
+        for (byte[] bytes : utf8) {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the record for a central body followed by the records of its components
+    private void writeCentralBody(CentralBodyFields fields, Map<String, Integer> strings) throws IOException {
+        out.writeByte(fields.codec.getTag());
+        out.writeInt(strings.get(fields.name));
+        out.writeDouble(fields.mass);
+        out.writeDouble(fields.radius);
+        out.writeDouble(fields.luminosity);
+        for (int i = 0; i < fields.codec.getComponentCount(); i++) {
+            writeCentralBody(fields.components[i], strings);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the planet count and the record for each planet of a solar system
+    private void writePlanets(SolarSystem solarSystem, Map<String, Integer> strings) throws IOException {
+        out.writeInt(solarSystem.getPlanets().size());
+        for (Planet p : solarSystem.getPlanets().values()) {
+            out.writeInt(strings.get(p.getName()));
+            out.writeDouble(p.getMass());
+            out.writeDouble(p.getRadius());
+            out.writeDouble(p.getOrbitSize());
+            out.writeByte((p.isMoon() ? MOON : 0) | (p.isRocky() ? ROCKY : 0));
+        }
+    }
+}
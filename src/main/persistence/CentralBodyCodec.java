@@ -0,0 +1,29 @@
+package persistence;
+
+import model.CentralBody;
+
+// Represents the conversion between one kind of central body and its saved data.
+// Codecs are registered with CentralBodyCodecs, which looks them up by type or tag
+// for the JSON and binary readers and writers.
+interface CentralBodyCodec {
+    // EFFECTS: returns the compact tag identifying this kind of central body in binary formats;
+    //          between 1 and 127
+    byte getTag();
+
+    // EFFECTS: returns the central body type identifying this kind of central body in JSON
+    String getType();
+
+    // EFFECTS: returns true if this kind of central body stores a luminosity
+    boolean hasLuminosity();
+
+    // EFFECTS: returns the number of central bodies this kind of central body is made of
+    int getComponentCount();
+
+    // MODIFIES: fields
+    // EFFECTS: copies the data of body, which is of this kind, into fields
+    void encode(CentralBody body, CentralBodyFields fields);
+
+    // REQUIRES: fields holds getComponentCount() components
+    // EFFECTS: rebuilds a central body of this kind from fields
+    CentralBody decode(CentralBodyFields fields);
+}
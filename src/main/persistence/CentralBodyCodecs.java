@@ -0,0 +1,142 @@
+package persistence;
+
+import model.CentralBody;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Represents the registry of central body codecs, looked up by tag in binary formats and by
+// central body type in JSON and when saving, so a kind of central body is read and written
+// the same way by every format. Central bodies of a type with no codec are rejected rather
+// than saved or read as some other kind.
+public final class CentralBodyCodecs {
+    private static final AtomicReferenceArray<CentralBodyCodec> BY_TAG =
+            new AtomicReferenceArray<>(Byte.MAX_VALUE + 1);
+    private static final Map<String, CentralBodyCodec> BY_TYPE = new ConcurrentHashMap<>();
+
+    static {
+        for (CentralBodyCodec codec : StandardCentralBodyCodec.values()) {
+            register(codec);
+        }
+    }
+
+    private CentralBodyCodecs() {
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds codec to the registry; throws IllegalArgumentException if its tag is
+    //          not between 1 and 127 or its tag or type is already registered
+    static synchronized void register(CentralBodyCodec codec) {
+        byte tag = codec.getTag();
+        if (tag <= 0 || BY_TAG.get(tag) != null || BY_TYPE.containsKey(codec.getType())) {
+            throw new IllegalArgumentException("Cannot register central body codec " + codec.getType()
+                    + " with tag " + tag);
+        }
+        BY_TAG.set(tag, codec);
+        BY_TYPE.put(codec.getType(), codec);
+    }
+
+    // EFFECTS: returns the codec with the given tag, or null if there is none
+    static CentralBodyCodec forTag(byte tag) {
+        return tag > 0 ? BY_TAG.get(tag) : null;
+    }
+
+    // EFFECTS: returns the codec for the given central body type, or null if there is none
+    static CentralBodyCodec forType(String centralBodyType) {
+        return BY_TYPE.get(centralBodyType);
+    }
+
+    // EFFECTS: returns the saved data of centralBody and its components;
+    //          throws IllegalArgumentException if its type has no codec
+    static CentralBodyFields encode(CentralBody centralBody) {
+        CentralBodyCodec codec = forType(centralBody.getCentralBodyType());
+        if (codec == null) {
+            throw new IllegalArgumentException("No codec for central body type "
+                    + centralBody.getCentralBodyType());
+        }
+        CentralBodyFields fields = new CentralBodyFields();
+        fields.codec = codec;
+        codec.encode(centralBody, fields);
+        return fields;
+    }
+
+    // REQUIRES: fields has a codec and as many components as the codec expects
+    // EFFECTS: rebuilds a central body and its components from fields
+    static CentralBody decode(CentralBodyFields fields) {
+        return fields.codec.decode(fields);
+    }
+
+    // EFFECTS: returns a copy of centralBody and its components
+    static CentralBody copy(CentralBody centralBody) {
+        return decode(encode(centralBody));
+    }
+
+    // EFFECTS: returns the JSON representation of centralBody; a luminosity is only included
+    //          for kinds that have one, and the components of a binary are nested in "components"
+    public static JSONObject toJson(CentralBody centralBody) {
+        return toJson(encode(centralBody));
+    }
+
+    // EFFECTS: returns the JSON representation of fields
+    private static JSONObject toJson(CentralBodyFields fields) {
+        JSONObject json = new JSONObject();
+        json.put("name", fields.name);
+        json.put("centralBodyType", fields.codec.getType());
+        json.put("mass", fields.mass);
+        json.put("radius", fields.radius);
+        if (fields.codec.hasLuminosity()) {
+            json.put("luminosity", fields.luminosity);
+        }
+        if (fields.codec.getComponentCount() > 0) {
+            JSONArray components = new JSONArray();
+            for (CentralBodyFields component : fields.components) {
+                components.put(toJson(component));
+            }
+            json.put("components", components);
+        }
+        return json;
+    }
+
+    // EFFECTS: rebuilds a central body from its JSON representation;
+    //          throws JSONException if a field is missing or its type has no codec
+    static CentralBody fromJson(JSONObject json) {
+        return decode(fieldsFromJson(json));
+    }
+
+    // EFFECTS: reads the saved data of a central body from its JSON representation
+    private static CentralBodyFields fieldsFromJson(JSONObject json) {
+        CentralBodyFields fields = new CentralBodyFields();
+        String centralBodyType = json.getString("centralBodyType");
+        fields.codec = forType(centralBodyType);
+        if (fields.codec == null) {
+            throw new JSONException("Unknown central body type " + centralBodyType);
+        }
+        fields.name = json.getString("name");
+        fields.mass = json.getDouble("mass");
+        fields.radius = json.getDouble("radius");
+        if (fields.codec.hasLuminosity()) {
+            fields.luminosity = json.getDouble("luminosity");
+        }
+        if (fields.codec.getComponentCount() > 0) {
+            fields.components = componentsFromJson(json, fields.codec);
+        }
+        return fields;
+    }
+
+    // EFFECTS: reads the saved data of the components of a central body of the kind codec handles
+    private static CentralBodyFields[] componentsFromJson(JSONObject json, CentralBodyCodec codec) {
+        JSONArray components = json.getJSONArray("components");
+        if (components.length() != codec.getComponentCount()) {
+            throw new JSONException(codec.getType() + " needs " + codec.getComponentCount() + " components");
+        }
+        CentralBodyFields[] fields = new CentralBodyFields[components.length()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fieldsFromJson(components.getJSONObject(i));
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,13 @@
+package persistence;
+
+// Represents the saved data of a central body as every file format stores it: the fields common
+// to all central bodies, the luminosity of kinds that have one and the components of kinds that
+// are made of other central bodies. The codec identifies the kind of central body.
+class CentralBodyFields {
+    CentralBodyCodec codec;
+    String name;
+    double mass;
+    double radius;
+    double luminosity;                // 0 unless codec.hasLuminosity()
+    CentralBodyFields[] components;   // codec.getComponentCount() entries
+}
@@ -0,0 +1,150 @@
+package persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.InflaterInputStream;
+
+// Represents a reader that reads galaxy from a compressed file written by CompressedGalaxyWriter.
+// Each block is read, decompressed and parsed as a separate task on a fork-join pool; the solar
+// systems are then added to the galaxy in file order, so duplicate names are reported the same
+// way as by JsonReader.
+public class CompressedGalaxyReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private String source;
+    private ForkJoinPool pool;
+
+    // EFFECTS: constructs reader to read from source file using the common fork-join pool
+    public CompressedGalaxyReader(String source) {
+        this(source, ForkJoinPool.commonPool());
+    }
+
+    // EFFECTS: constructs reader to read from source file, decoding blocks in parallel on pool
+    public CompressedGalaxyReader(String source, ForkJoinPool pool) {
+        this.source = source;
+        this.pool = pool;
+    }
+
+    // EFFECTS: reads galaxy from file and returns it, logging one summary event
+    //          instead of an event for every body;
+    // throws IOException if an error occurs reading data from file or it is not a compressed galaxy
+    public Galaxy read() throws IOException {
+        try (BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad();
+             FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            DataInputStream header = new DataInputStream(new ByteArrayInputStream(readBytes(channel, 0,
+                    (int) Math.min(channel.size(), BUFFER_SIZE))));
+            if (header.readInt() != CompressedGalaxyWriter.MAGIC) {
+                throw new IOException("Not a compressed galaxy");
+            }
+            short version = header.readShort();
+            if (version != CompressedGalaxyWriter.VERSION) {
+                throw new IOException("Unsupported compressed galaxy version " + version);
+            }
+            Galaxy galaxy = new Galaxy(header.readUTF());
+            for (ForkJoinTask<List<SolarSystem>> block : decodeBlocks(channel, bulkLoad)) {
+                addSolarSystems(galaxy, join(block));
+            }
+            bulkLoad.setGalaxy(galaxy);
+            return galaxy;
+        }
+    }
+
+    // EFFECTS: reads the block index and starts a task decoding each block as part of bulkLoad,
+    //          in file order
+    private List<ForkJoinTask<List<SolarSystem>>> decodeBlocks(FileChannel channel, BulkLoad bulkLoad)
+            throws IOException {
+        long size = channel.size();
+        long indexOffset = ByteBuffer.wrap(readBytes(channel, size - CompressedGalaxyWriter.TRAILER_BYTES,
+                CompressedGalaxyWriter.TRAILER_BYTES)).getLong();
+        if (indexOffset < 0 || indexOffset > size - CompressedGalaxyWriter.TRAILER_BYTES) {
+            throw new IOException("Compressed galaxy has a corrupt index");
+        }
+        ByteBuffer index = ByteBuffer.wrap(readBytes(channel, indexOffset,
+                (int) (size - CompressedGalaxyWriter.TRAILER_BYTES - indexOffset)));
+        List<ForkJoinTask<List<SolarSystem>>> blocks = new ArrayList<>();
+        try {
+            int blockCount = index.getInt();
+            for (int i = 0; i < blockCount; i++) {
+                long offset = index.getLong();
+                int length = index.getInt();
+                int solarSystemCount = index.getInt();
+                if (offset < 0 || length < 0 || offset + length > indexOffset) {
+                    throw new IOException("Compressed galaxy has a corrupt index");
+                }
+                blocks.add(pool.submit(() -> bulkLoad.within(
+                        () -> decodeBlock(readBytes(channel, offset, length), solarSystemCount))));
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Compressed galaxy has a corrupt index");
+        }
+        return blocks;
+    }
+
+    // EFFECTS: decompresses a block and parses the solar systems in it
+    private static List<SolarSystem> decodeBlock(byte[] compressed, int solarSystemCount) throws IOException {
+        List<SolarSystem> solarSystems = new ArrayList<>(solarSystemCount);
+        JsonTokenReader json = new JsonTokenReader(new InputStreamReader(
+                new InflaterInputStream(new ByteArrayInputStream(compressed)), StandardCharsets.UTF_8));
+        json.beginArray();
+        while (json.hasNext()) {
+            solarSystems.add(JsonStreamReader.parseSolarSystem(json));
+        }
+        json.endArray();
+        json.endDocument();
+        return solarSystems;
+    }
+
+    // EFFECTS: reads length bytes starting at offset; safe to call from several threads at once
+    private static byte[] readBytes(FileChannel channel, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Compressed galaxy is truncated");
+            }
+        }
+        return buffer.array();
+    }
+
+    // EFFECTS: waits for a block to be decoded and returns its solar systems,
+    //          rethrowing any error met while decoding it
+    private static List<SolarSystem> join(ForkJoinTask<List<SolarSystem>> block) throws IOException {
+        try {
+            return block.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading compressed galaxy");
+        }
+    }
+
+    // MODIFIES: galaxy
+    // EFFECTS: adds solar systems to galaxy in order
+    private static void addSolarSystems(Galaxy galaxy, List<SolarSystem> solarSystems) {
+        try {
+            for (SolarSystem solarSystem : solarSystems) {
+                galaxy.addSolarSystem(solarSystem);
+            }
+        } catch (NameAlreadyUsedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
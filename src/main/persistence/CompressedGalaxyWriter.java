@@ -0,0 +1,121 @@
+package persistence;
+
+import model.*;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+// Represents a writer that writes galaxy to a compressed file made of independently
+// compressed blocks, so the blocks can be decompressed and parsed in parallel.
+// Layout (big-endian):
+//   header:  magic, version, galaxy name
+//   blocks:  each a deflated JSON array of solar systems, in the same schema as JsonWriter
+//   index:   block count, then for each block its offset, compressed length and solar system count
+//   trailer: offset of the index
+public class CompressedGalaxyWriter {
+    static final int MAGIC = 0x47414C5A;   // "GALZ"
+    static final short VERSION = 1;
+    static final int TRAILER_BYTES = 8;
+    private static final int BLOCK_BYTES = 256 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private String destination;
+    private DataOutputStream out;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    private final List<long[]> index = new ArrayList<>();   // offset, compressed length, solar systems
+    private long position;   // bytes written so far; DataOutputStream only counts up to 2 GB
+
+    // EFFECTS: constructs writer to write to destination file
+    public CompressedGalaxyWriter(String destination) {
+        this.destination = destination;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws IOException if destination file cannot be opened for writing
+    public void open() throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(destination), BUFFER_SIZE));
+        index.clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes galaxy to file, starting a new block whenever the current one holds
+    //          about BLOCK_BYTES of JSON; throws IOException if the file cannot be written
+    public void write(Galaxy galaxy) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeUTF(galaxy.getName());
+        position = out.size();
+        Writer writer = new OutputStreamWriter(block, StandardCharsets.UTF_8);
+        JsonTokenWriter json = startBlock(writer);
+        int count = 0;
+        for (SolarSystem s : galaxy.getSolarSystems().values()) {
+            JsonStreamWriter.writeSolarSystem(json, s);
+            count++;
+            writer.flush();
+            if (block.size() >= BLOCK_BYTES) {
+                finishBlock(json, writer, count);
+                json = startBlock(writer);
+                count = 0;
+            }
+        }
+        if (count > 0) {
+            finishBlock(json, writer, count);
+        }
+        writeIndex();
+
+        EventLog.getInstance().logEvent(EventTemplate.GALAXY_SAVED, null, galaxy.getName());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer; throws IOException if the remaining data cannot be written
+    public void close() throws IOException {
+        deflater.end();
+        out.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts the JSON array of a new block
+    private JsonTokenWriter startBlock(Writer writer) throws IOException {
+        block.reset();
+        return new JsonTokenWriter(writer, false).beginArray();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: ends the current block's JSON array, compresses it and appends it to the file
+    private void finishBlock(JsonTokenWriter json, Writer writer, int count) throws IOException {
+        json.endArray();
+        writer.flush();
+        compressed.reset();
+        deflater.reset();
+        DeflaterOutputStream deflating = new DeflaterOutputStream(compressed, deflater, BUFFER_SIZE);
+        block.writeTo(deflating);
+        deflating.finish();
+        index.add(new long[]{position, compressed.size(), count});
+        compressed.writeTo(out);
+        position += compressed.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the block index and the trailer pointing at it
+    private void writeIndex() throws IOException {
+        long indexOffset = position;
+        out.writeInt(index.size());
+        for (long[] entry : index) {
+            out.writeLong(entry[0]);
+            out.writeInt((int) entry[1]);
+            out.writeInt((int) entry[2]);
+        }
+        out.writeLong(indexOffset);
+    }
+}
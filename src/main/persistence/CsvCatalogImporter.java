@@ -0,0 +1,182 @@
+package persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Represents an importer that adds the solar systems and planets of a CSV catalog to a galaxy.
+// The first line names the columns, in any order; other columns are ignored:
+//   solarSystem, centralBody, centralBodyType, centralBodyMass, centralBodyRadius,
+//   luminosity (only needed for giant stars), planet, radius, orbitSize, moon
+// Every other line is one planet of a solar system; a line with an empty planet adds just the
+// solar system. The central body columns are only read from the first line of a solar system.
+// A planet name may appear only once in a solar system; a line repeating one is not valid.
+// Rows of a solar system are usually next to each other: the importer keeps only the solar system
+// of the rows it is reading and looks a solar system up in the galaxy again when the name changes,
+// so the catalog is read line by line without being held in memory.
+public class CsvCatalogImporter {
+    static final String[] COLUMNS = {"solarSystem", "centralBody", "centralBodyType", "centralBodyMass",
+            "centralBodyRadius", "luminosity", "planet", "radius", "orbitSize", "moon"};
+    private static final int SOLAR_SYSTEM = 0;
+    private static final int CENTRAL_BODY = 1;
+    private static final int CENTRAL_BODY_TYPE = 2;
+    private static final int CENTRAL_BODY_MASS = 3;
+    private static final int CENTRAL_BODY_RADIUS = 4;
+    private static final int LUMINOSITY = 5;
+    private static final int PLANET = 6;
+    private static final int RADIUS = 7;
+    private static final int ORBIT_SIZE = 8;
+    private static final int MOON = 9;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final String source;
+
+    // EFFECTS: constructs importer to read from source file
+    public CsvCatalogImporter(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: reads the catalog into a new galaxy with the given name and returns it;
+    //          throws IOException if the file cannot be read or a line is not valid
+    public Galaxy read(String galaxyName) throws IOException {
+        Galaxy galaxy = new Galaxy(galaxyName);
+        importInto(galaxy);
+        return galaxy;
+    }
+
+    // MODIFIES: galaxy
+    // EFFECTS: adds the solar systems and planets in the catalog to galaxy, logging one summary
+    //          event instead of an event for every body, and returns the number of rows imported;
+    //          planets of a solar system already in galaxy are added to it;
+    //          throws IOException naming the line if the file cannot be read or a line is not valid,
+    //          in which case the rows before that line have been imported
+    public long importInto(Galaxy galaxy) throws IOException {
+        try (BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(
+                     Files.newInputStream(Paths.get(source)), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            CsvRecord record = new CsvRecord();
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IOException("Catalog has no header line");
+            }
+            record.split(header);
+            int[] columns = findColumns(record);
+            long rows = importRows(reader, record, columns, galaxy);
+            bulkLoad.setGalaxy(galaxy);
+            return rows;
+        }
+    }
+
+    // EFFECTS: returns the index of each of COLUMNS in the header, or -1 for a missing
+    //          luminosity column; throws IOException if another column is missing
+    private int[] findColumns(CsvRecord header) throws IOException {
+        int[] columns = new int[COLUMNS.length];
+        for (int c = 0; c < COLUMNS.length; c++) {
+            columns[c] = -1;
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).trim().equals(COLUMNS[c])) {
+                    columns[c] = i;
+                }
+            }
+            if (columns[c] < 0 && c != LUMINOSITY) {
+                throw new IOException("Catalog has no " + COLUMNS[c] + " column");
+            }
+        }
+        return columns;
+    }
+
+    // MODIFIES: galaxy
+    // EFFECTS: imports every remaining line of reader into galaxy and returns the number of rows
+    private long importRows(BufferedReader reader, CsvRecord record, int[] columns, Galaxy galaxy)
+            throws IOException {
+        SolarSystem current = null;
+        long lineNumber = 1;
+        long rows = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                record.split(line);
+                current = importRow(record, columns, galaxy, current);
+                rows++;
+            } catch (IOException | IllegalArgumentException e) {
+                throw new IOException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return rows;
+    }
+
+    // MODIFIES: galaxy
+    // EFFECTS: adds the planet in record to its solar system, which is current if the name matches,
+    //          and returns that solar system; creates the solar system if it is not in galaxy;
+    //          throws IOException if the solar system already has a planet with that name
+    private SolarSystem importRow(CsvRecord record, int[] columns, Galaxy galaxy, SolarSystem current)
+            throws IOException {
+        String name = record.get(columns[SOLAR_SYSTEM]);
+        if (name.isEmpty()) {
+            throw new IOException("Row has no solar system");
+        }
+        SolarSystem solarSystem = current;
+        if (solarSystem == null || !solarSystem.getName().equals(name)) {
+            solarSystem = galaxy.hasSolarSystem(name) ? galaxy.getSolarSystem(name) : addSolarSystem(record,
+                    columns, galaxy, name);
+        }
+        if (!record.isEmpty(columns[PLANET])) {
+            String planetName = record.get(columns[PLANET]);
+            if (solarSystem.getPlanets().containsKey(planetName)) {
+                throw new IOException(name + " already has a planet named " + planetName);
+            }
+            solarSystem.addPlanet(new Planet(planetName, record.getDouble(columns[RADIUS]),
+                    record.getDouble(columns[ORBIT_SIZE]), parseBoolean(record.get(columns[MOON]))));
+        }
+        return solarSystem;
+    }
+
+    // MODIFIES: galaxy
+    // EFFECTS: creates a solar system with the given name and the central body in record,
+    //          adds it to galaxy and returns it
+    private SolarSystem addSolarSystem(CsvRecord record, int[] columns, Galaxy galaxy, String name)
+            throws IOException {
+        SolarSystem solarSystem = new SolarSystem(name, readCentralBody(record, columns));
+        try {
+            galaxy.addSolarSystem(solarSystem);
+        } catch (NameAlreadyUsedException e) {
+            throw new RuntimeException(e);
+        }
+        return solarSystem;
+    }
+
+    // EFFECTS: builds the central body described by record; throws IOException if its type is
+    //          unknown or made of other central bodies, or it needs a luminosity the catalog lacks
+    private CentralBody readCentralBody(CsvRecord record, int[] columns) throws IOException {
+        String centralBodyType = record.get(columns[CENTRAL_BODY_TYPE]);
+        CentralBodyFields fields = new CentralBodyFields();
+        fields.codec = CentralBodyCodecs.forType(centralBodyType);
+        if (fields.codec == null || fields.codec.getComponentCount() > 0) {
+            throw new IOException("Cannot import central body type " + centralBodyType);
+        }
+        fields.name = record.get(columns[CENTRAL_BODY]);
+        fields.mass = record.getDouble(columns[CENTRAL_BODY_MASS]);
+        fields.radius = record.getDouble(columns[CENTRAL_BODY_RADIUS]);
+        if (fields.codec.hasLuminosity()) {
+            if (columns[LUMINOSITY] < 0) {
+                throw new IOException(centralBodyType + " needs a luminosity column");
+            }
+            fields.luminosity = record.getDouble(columns[LUMINOSITY]);
+        }
+        return CentralBodyCodecs.decode(fields);
+    }
+
+    // EFFECTS: returns the value of a moon column; true, yes and 1 in any case mean true
+    private static boolean parseBoolean(String value) {
+        String trimmed = value.trim();
+        return trimmed.equalsIgnoreCase("true") || trimmed.equalsIgnoreCase("yes") || trimmed.equals("1");
+    }
+}
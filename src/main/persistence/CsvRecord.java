@@ -0,0 +1,95 @@
+package persistence;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Represents one line of a CSV file split into fields. Fields are separated by commas and may be
+// quoted with double quotes, inside which commas are kept and a doubled quote stands for one quote.
+// The record is reused for every line, so splitting a line only records where its fields are;
+// a field is copied into a String or parsed as a number only when it is asked for.
+class CsvRecord {
+    private String line;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] quoted = new boolean[16];
+    private int fieldCount;
+
+    // MODIFIES: this
+    // EFFECTS: splits line into fields; throws IOException if a quoted field is not closed
+    //          or is followed by something other than a comma
+    void split(String line) throws IOException {
+        this.line = line;
+        fieldCount = 0;
+        int i = 0;
+        while (true) {
+            grow();
+            boolean isQuoted = i < line.length() && line.charAt(i) == '"';
+            int end = isQuoted ? closingQuote(i + 1) : line.indexOf(',', i);
+            end = end < 0 ? line.length() : end;
+            starts[fieldCount] = isQuoted ? i + 1 : i;
+            ends[fieldCount] = end;
+            quoted[fieldCount] = isQuoted;
+            fieldCount++;
+            i = isQuoted ? end + 1 : end;
+            if (i >= line.length()) {
+                return;
+            } else if (line.charAt(i) != ',') {
+                throw new IOException("Unexpected character after quoted field");
+            }
+            i++;
+        }
+    }
+
+    // EFFECTS: returns the number of fields in the line
+    int size() {
+        return fieldCount;
+    }
+
+    // EFFECTS: returns true if field i is missing or empty
+    boolean isEmpty(int i) {
+        return i >= fieldCount || starts[i] == ends[i];
+    }
+
+    // EFFECTS: returns field i, or an empty string if the line has no field i
+    String get(int i) {
+        if (i >= fieldCount) {
+            return "";
+        }
+        String field = line.substring(starts[i], ends[i]);
+        return quoted[i] ? field.replace("\"\"", "\"") : field;
+    }
+
+    // EFFECTS: returns field i as a number; throws NumberFormatException if it is not one
+    double getDouble(int i) {
+        if (i >= fieldCount || quoted[i]) {
+            return NumberCodec.parseDouble(get(i), 0, get(i).length());
+        }
+        return NumberCodec.parseDouble(line, starts[i], ends[i]);
+    }
+
+    // EFFECTS: returns the index of the quote that closes a quoted field starting at from
+    private int closingQuote(int from) throws IOException {
+        int i = from;
+        while (true) {
+            i = line.indexOf('"', i);
+            if (i < 0) {
+                throw new IOException("Unterminated quoted field");
+            } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                i += 2;
+            } else {
+                return i;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes room for another field
+    private void grow() {
+        if (fieldCount == starts.length) {
+            int capacity = fieldCount * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            quoted = Arrays.copyOf(quoted, capacity);
+        }
+    }
+}
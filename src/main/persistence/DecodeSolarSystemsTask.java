@@ -0,0 +1,48 @@
+package persistence;
+
+import model.BulkLoad;
+import model.SolarSystem;
+import org.json.JSONArray;
+
+import java.util.concurrent.RecursiveAction;
+
+// Represents a fork-join task that decodes a range of a solar system JSON array.
+// Ranges larger than the chunk size are split in half and decoded in parallel;
+// each solar system is stored at its own index so the result keeps the array's order.
+// Every worker decodes as part of the bulk load the array is being read for.
+class DecodeSolarSystemsTask extends RecursiveAction {
+    static final int CHUNK_SIZE = 64;
+    private static final long serialVersionUID = 1L;
+    private final BulkLoad bulkLoad;
+    private final JSONArray jsonArray;
+    private final SolarSystem[] decoded;
+    private final int from;
+    private final int to;
+
+    // REQUIRES: 0 <= from <= to <= jsonArray.length() and decoded.length == jsonArray.length()
+    // EFFECTS: constructs a task decoding the elements from (inclusive) to (exclusive) into decoded
+    //          as part of bulkLoad
+    DecodeSolarSystemsTask(BulkLoad bulkLoad, JSONArray jsonArray, SolarSystem[] decoded, int from, int to) {
+        this.bulkLoad = bulkLoad;
+        this.jsonArray = jsonArray;
+        this.decoded = decoded;
+        this.from = from;
+        this.to = to;
+    }
+
+    // MODIFIES: decoded
+    // EFFECTS: decodes the range, splitting it while it is larger than the chunk size
+    @Override
+    protected void compute() {
+        if (to - from <= CHUNK_SIZE) {
+            for (int i = from; i < to; i++) {
+                int index = i;
+                decoded[i] = bulkLoad.within(() -> JsonReader.parseSolarSystem(jsonArray.getJSONObject(index)));
+            }
+        } else {
+            int middle = (from + to) >>> 1;
+            invokeAll(new DecodeSolarSystemsTask(bulkLoad, jsonArray, decoded, from, middle),
+                    new DecodeSolarSystemsTask(bulkLoad, jsonArray, decoded, middle, to));
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Represents a galaxy store made of a full JSON snapshot and a delta file of the changes
+// saved since the snapshot was written. Saving appends only the solar systems that changed;
+// once the delta file grows past the compaction size, the next save writes a new snapshot
+// and starts an empty delta file.
+// The snapshot and the delta file are stamped with the same generation, which each compaction
+// increases, so a delta file left behind by a crash during compaction is ignored rather than
+// replayed over the newer snapshot. A last line cut short by a crash during a save is ignored
+// when loading and cut off before the next save appends to the file.
+// The first line of the delta file is its generation and each line after it is one change:
+//   {"generation":<generation of the snapshot it applies to>}
+//   {"remove":"<solar system name>"}
+//   {"rename":"<new galaxy name>"}
+//   {"put":<solar system, as in the snapshot>}
+public class DeltaStore {
+    private static final String GENERATION = "generation";
+    private static final int BUFFER_SIZE = 8192;
+    private final Path snapshot;
+    private final Path delta;
+    private final long compactionBytes;
+
+    // REQUIRES: compactionBytes must be positive
+    // EFFECTS: constructs a store keeping the snapshot and delta files at the given paths,
+    //          compacting once the delta file is larger than compactionBytes
+    public DeltaStore(String snapshot, String delta, long compactionBytes) {
+        this.snapshot = Paths.get(snapshot);
+        this.delta = Paths.get(delta);
+        this.compactionBytes = compactionBytes;
+    }
+
+    // MODIFIES: this, galaxy
+    // EFFECTS: saves the changes to galaxy since it was last saved, writing a full snapshot
+    //          instead if there is none yet or the delta file is due for compaction,
+    //          then marks galaxy as saved; throws IOException if the files cannot be written
+    public void save(Galaxy galaxy) throws IOException {
+        if (!Files.exists(snapshot) || (Files.exists(delta) && Files.size(delta) > compactionBytes)) {
+            compact(galaxy);
+        } else if (galaxy.isDirty()) {
+            appendDelta(galaxy);
+        }
+        galaxy.clearDirty();
+    }
+
+    // MODIFIES: this, galaxy
+    // EFFECTS: writes a full snapshot of galaxy in the next generation, forcing it to disk and
+    //          replacing the old snapshot in one step, deletes the delta file and marks galaxy
+    //          as saved; throws IOException if the files cannot be written
+    public void compact(Galaxy galaxy) throws IOException {
+        long generation = Files.exists(snapshot) ? snapshotGeneration() + 1 : 1;
+        Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        JsonStreamWriter writer = new JsonStreamWriter(temporary.toString(), false);
+        writer.open();
+        try {
+            writer.write(galaxy, generation);
+        } finally {
+            writer.close();
+        }
+        FileSync.replace(temporary, snapshot);
+        Files.deleteIfExists(delta);
+        galaxy.clearDirty();
+    }
+
+    // EFFECTS: reads the snapshot and applies the changes in the delta file to it, unless the
+    //          delta file belongs to another generation; a last line cut short by a crash during
+    //          a save is ignored; throws IOException if the files cannot be read
+    public Galaxy load() throws IOException {
+        Galaxy galaxy = new JsonStreamReader(snapshot.toString()).read();
+        if (deltaGeneration() == snapshotGeneration()) {
+            BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad();
+            try (BufferedReader reader = Files.newBufferedReader(delta, StandardCharsets.UTF_8)) {
+                String line = reader.readLine();
+                while (line != null) {
+                    String next = reader.readLine();
+                    applyChange(galaxy, line, next == null);
+                    line = next;
+                }
+            } finally {
+                bulkLoad.close();
+            }
+        }
+        galaxy.clearDirty();
+        return galaxy;
+    }
+
+    // EFFECTS: returns the generation the snapshot was written in, which is its first member;
+    //          throws IOException if the snapshot cannot be read or does not start with one
+    private long snapshotGeneration() throws IOException {
+        try (Reader reader = Files.newBufferedReader(snapshot, StandardCharsets.UTF_8)) {
+            JsonTokenReader json = new JsonTokenReader(reader);
+            json.beginObject();
+            if (!json.hasNext() || !json.nextName().equals(GENERATION)) {
+                throw new IOException("Snapshot has no generation: " + snapshot);
+            }
+            return (long) json.nextDouble();
+        }
+    }
+
+    // EFFECTS: returns the generation on the first line of the delta file, or -1 if there is
+    //          no delta file or its first line is not a complete generation line;
+    //          throws IOException if the file cannot be read
+    private long deltaGeneration() throws IOException {
+        if (!Files.exists(delta)) {
+            return -1;
+        }
+        String first;
+        try (BufferedReader reader = Files.newBufferedReader(delta, StandardCharsets.UTF_8)) {
+            first = reader.readLine();
+        }
+        if (first == null) {
+            return -1;
+        }
+        try {
+            return new JSONObject(first).optLong(GENERATION, -1);
+        } catch (JSONException e) {
+            return -1;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a line to the delta file for each change to galaxy since it was last saved,
+    //          after cutting off a last line left unfinished by a crash; starts the file again
+    //          with the snapshot's generation if it belongs to another one
+    private void appendDelta(Galaxy galaxy) throws IOException {
+        long generation = snapshotGeneration();
+        boolean restart = deltaGeneration() != generation;
+        try (FileChannel channel = FileChannel.open(delta, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            channel.truncate(restart ? 0 : completeLinesLength(channel));
+            channel.position(channel.size());
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1);
+            if (restart) {
+                new JsonTokenWriter(writer, false).beginObject().name(GENERATION).value(generation).endObject();
+                writer.write('\n');
+            }
+            for (String name : galaxy.getRemovedSolarSystemNames()) {
+                new JsonTokenWriter(writer, false).beginObject().name("remove").value(name).endObject();
+                writer.write('\n');
+            }
+            if (galaxy.isNameChanged()) {
+                new JsonTokenWriter(writer, false).beginObject().name("rename").value(galaxy.getName()).endObject();
+                writer.write('\n');
+            }
+            for (SolarSystem solarSystem : galaxy.getChangedSolarSystems()) {
+                JsonTokenWriter json = new JsonTokenWriter(writer, false).beginObject().name("put");
+                JsonStreamWriter.writeSolarSystem(json, solarSystem);
+                json.endObject();
+                writer.write('\n');
+            }
+            writer.flush();
+            channel.force(false);
+        }
+    }
+
+    // EFFECTS: returns the length of the file read through channel up to and including its last
+    //          newline, or 0 if it has none
+    private static long completeLinesLength(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long end = channel.size();
+        while (end > 0) {
+            long start = Math.max(0, end - BUFFER_SIZE);
+            buffer.clear().limit((int) (end - start));
+            while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) >= 0) {
+                continue;
+            }
+            for (int i = buffer.position() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    // MODIFIES: galaxy
+    // EFFECTS: applies one line of the delta file to galaxy; throws IOException if the line
+    //          is not a change, unless it is the last line
+    private void applyChange(Galaxy galaxy, String line, boolean last) throws IOException {
+        JSONObject change;
+        try {
+            change = new JSONObject(line);
+        } catch (JSONException e) {
+            if (last) {
+                return;
+            }
+            throw new IOException("Corrupt delta file: " + e.getMessage());
+        }
+        if (change.has("remove")) {
+            if (galaxy.hasSolarSystem(change.getString("remove"))) {
+                galaxy.removeSolarSystem(change.getString("remove"));
+            }
+        } else if (change.has("rename")) {
+            galaxy.changeName(change.getString("rename"));
+        } else if (change.has("put")) {
+            putSolarSystem(galaxy, JsonReader.parseSolarSystem(change.getJSONObject("put")));
+        }
+    }
+
+    // MODIFIES: galaxy
+    // EFFECTS: adds solar system to galaxy, replacing any solar system with the same name
+    private void putSolarSystem(Galaxy galaxy, SolarSystem solarSystem) {
+        if (galaxy.hasSolarSystem(solarSystem.getName())) {
+            galaxy.removeSolarSystem(solarSystem.getName());
+        }
+        try {
+            galaxy.addSolarSystem(solarSystem);
+        } catch (NameAlreadyUsedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package persistence;
+
+import model.Event;
+import model.EventLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Represents a background writer that drains events from the EventLog into
+// append-only segment files, so the log only needs to keep a small tail in memory.
+// A segment is closed once it reaches the segment size and only the newest
+// segments are kept on disk.
+// Each event's line goes into the buffer whole, and the drain position moves past an event
+// as soon as its line is buffered, so a drain that fails partway neither loses nor repeats
+// events: bytes the channel did not take stay in the buffer for the next drain.
+public class EventLogSpiller {
+    private static final Pattern SEGMENT_NAME = Pattern.compile("events-(\\d+)\\.log");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long DRAIN_INTERVAL_MS = 250;
+    private final Path directory;
+    private final long segmentBytes;
+    private final int retainedSegments;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private ScheduledExecutorService drainer;
+    private FileChannel channel;
+    private int segmentNumber;
+    private long segmentSize;
+    private long position;
+    private long spilledCount;
+    private long lostCount;
+    private long failedDrainCount;
+
+    // REQUIRES: segmentBytes and retainedSegments must be positive
+    // EFFECTS: constructs a spiller writing segments of about segmentBytes bytes
+    //          to directory and keeping at most retainedSegments of them
+    public EventLogSpiller(String directory, long segmentBytes, int retainedSegments) {
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentBytes;
+        this.retainedSegments = retainedSegments;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens a new segment and starts draining the event log on a
+    //          background thread, beginning with the events already in memory;
+    //          throws IOException if the segment cannot be created
+    public synchronized void start() throws IOException {
+        Files.createDirectories(directory);
+        List<Integer> segments = segmentNumbers();
+        segmentNumber = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+        openNextSegment();
+        drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-log-spiller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainer.scheduleWithFixedDelay(this::drainQuietly,
+                DRAIN_INTERVAL_MS, DRAIN_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes every event logged since the last drain to disk;
+    //          events overwritten in memory before they could be drained are counted as lost;
+    //          throws IOException if the segment cannot be written
+    public synchronized void drain() throws IOException {
+        long end;
+        try {
+            end = EventLog.getInstance().readFrom(position, this::append);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        lostCount += end - position;
+        position = end;
+        flush();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the background thread, drains the remaining events and closes
+    //          the current segment; throws IOException if the segment cannot be written
+    public synchronized void close() throws IOException {
+        drainer.shutdown();
+        drain();
+        channel.force(false);
+        channel.close();
+    }
+
+    public synchronized long getSpilledCount() {
+        return spilledCount;
+    }
+
+    public synchronized long getLostCount() {
+        return lostCount;
+    }
+
+    public synchronized long getFailedDrainCount() {
+        return failedDrainCount;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drains the log on the background thread, counting a failure since no caller
+    //          can handle it; the events not yet written are retried on the next drain
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (IOException e) {
+            synchronized (this) {
+                failedDrainCount++;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends one line describing the event at the given position to the current
+    //          segment, starting a new segment first if the current one is full, and moves the
+    //          drain position past it; events skipped since the last one are counted as lost
+    private void append(Event event, long eventPosition) {
+        String line = event.getDate().getTime() + "\t" + event.getCategory() + "\t"
+                + event.getDescription().replace('\n', ' ').replace('\t', ' ') + "\n";
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        try {
+            if (segmentSize > 0 && segmentSize + bytes.length > segmentBytes) {
+                flush();
+                FileChannel full = channel;
+                openNextSegment();
+                full.close();
+            }
+            write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segmentSize += bytes.length;
+        spilledCount++;
+        lostCount += eventPosition - position;
+        position = eventPosition + 1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies bytes into the buffer whole, flushing it first if they do not fit;
+    //          bytes larger than the buffer are written straight to the channel, and cut
+    //          back off the segment if that fails partway
+    private void write(byte[] bytes) throws IOException {
+        if (buffer.remaining() < bytes.length) {
+            flush();
+        }
+        if (bytes.length <= buffer.remaining()) {
+            buffer.put(bytes);
+            return;
+        }
+        long size = channel.size();
+        try {
+            ByteBuffer line = ByteBuffer.wrap(bytes);
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+        } catch (IOException e) {
+            channel.truncate(size);
+            throw e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the buffered bytes to the current segment; bytes not written because
+    //          of an error are kept at the start of the buffer
+    private void flush() throws IOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } finally {
+            buffer.compact();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the next segment for appending and deletes the oldest
+    //          segments beyond the retention limit; the current segment is kept
+    //          if the next one cannot be opened
+    private void openNextSegment() throws IOException {
+        channel = FileChannel.open(segmentPath(segmentNumber + 1), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentNumber++;
+        segmentSize = channel.size();
+        List<Integer> segments = segmentNumbers();
+        for (int i = 0; i < segments.size() - retainedSegments; i++) {
+            Files.deleteIfExists(segmentPath(segments.get(i)));
+        }
+    }
+
+    // EFFECTS: returns the path of the segment with the given number
+    private Path segmentPath(int number) {
+        return directory.resolve(String.format("events-%06d.log", number));
+    }
+
+    // EFFECTS: returns the numbers of the segments in the directory, oldest first
+    private List<Integer> segmentNumbers() throws IOException {
+        List<Integer> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> SEGMENT_NAME.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .forEach(matcher -> numbers.add(Integer.parseInt(matcher.group(1))));
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+}
@@ -0,0 +1,42 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Represents the steps that make a file written in full survive an operating system or power
+// failure: its contents are forced to the storage device before it is renamed into place, and the
+// directory holding it is forced afterwards so the rename itself is not lost.
+final class FileSync {
+
+    private FileSync() {
+    }
+
+    // EFFECTS: forces temporary to disk, moves it over destination in one step and forces the
+    //          directory holding destination; throws IOException if a step fails
+    static void replace(Path temporary, Path destination) throws IOException {
+        force(temporary);
+        Files.move(temporary, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(destination.toAbsolutePath().getParent());
+    }
+
+    // EFFECTS: forces the contents of file to disk; throws IOException if it cannot be forced
+    static void force(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    // EFFECTS: forces the entries of directory to disk where the platform allows a directory
+    //          to be opened, such as Linux and macOS; does nothing elsewhere
+    static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // directories cannot be opened as files on this platform, so renames are left to it
+        }
+    }
+}
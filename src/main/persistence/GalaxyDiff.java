@@ -0,0 +1,168 @@
+package persistence;
+
+import model.*;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.TreeSet;
+
+// Represents a comparison of two galaxies saved by NdjsonWriter, whose lines are in order of
+// solar system name. Both files are read together in one merge-join pass, holding only the
+// current solar system of each, so large galaxies are compared in linear time and memory
+// bounded by the largest solar system.
+public class GalaxyDiff {
+    private final String oldSource;
+    private final String newSource;
+
+    // EFFECTS: constructs a comparison of the galaxy in oldSource with the one in newSource
+    public GalaxyDiff(String oldSource, String newSource) {
+        this.oldSource = oldSource;
+        this.newSource = newSource;
+    }
+
+    // EFFECTS: tells listener every difference between the two galaxies, in order of solar system
+    //          name and then planet name, and returns the number of differences;
+    //          throws IOException if either file cannot be read, has a line that is not valid,
+    //          or is not in order of solar system name
+    public long run(GalaxyDiffListener listener) throws IOException {
+        BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad();
+        try (SortedSolarSystems before = new SortedSolarSystems(oldSource);
+             SortedSolarSystems after = new SortedSolarSystems(newSource)) {
+            return merge(before, after, listener);
+        } finally {
+            bulkLoad.close();
+        }
+    }
+
+    // MODIFIES: before, after
+    // EFFECTS: walks both sorted files together, telling listener about each solar system only
+    //          one of them has and each difference between the ones they share, and returns
+    //          the number of differences
+    private static long merge(SortedSolarSystems before, SortedSolarSystems after, GalaxyDiffListener listener)
+            throws IOException {
+        long differences = 0;
+        SolarSystem older = before.next();
+        SolarSystem newer = after.next();
+        while (older != null || newer != null) {
+            int order = older == null ? 1 : newer == null ? -1 : older.getName().compareTo(newer.getName());
+            if (order < 0) {
+                listener.solarSystemRemoved(older);
+                differences++;
+            } else if (order > 0) {
+                listener.solarSystemAdded(newer);
+                differences++;
+            } else {
+                differences += compare(older, newer, listener);
+            }
+            older = order <= 0 ? before.next() : older;
+            newer = order >= 0 ? after.next() : newer;
+        }
+        return differences;
+    }
+
+    // EFFECTS: tells listener the differences between two versions of a solar system
+    //          and returns how many there are
+    private static long compare(SolarSystem older, SolarSystem newer, GalaxyDiffListener listener) {
+        String name = older.getName();
+        long differences = 0;
+        if (!sameCentralBody(CentralBodyCodecs.encode(older.getCentralBody()),
+                CentralBodyCodecs.encode(newer.getCentralBody()))) {
+            listener.centralBodyChanged(name, older.getCentralBody(), newer.getCentralBody());
+            differences++;
+        }
+        return differences + comparePlanets(older, newer, listener);
+    }
+
+    // EFFECTS: tells listener the planets removed, added or changed between two versions of a
+    //          solar system, in order of planet name, and returns how many there are
+    private static long comparePlanets(SolarSystem older, SolarSystem newer, GalaxyDiffListener listener) {
+        String name = older.getName();
+        long differences = 0;
+        TreeSet<String> planetNames = new TreeSet<>(older.getPlanets().keySet());
+        planetNames.addAll(newer.getPlanets().keySet());
+        for (String planetName : planetNames) {
+            Planet before = older.getPlanet(planetName);
+            Planet after = newer.getPlanet(planetName);
+            if (after == null) {
+                listener.planetRemoved(name, before);
+            } else if (before == null) {
+                listener.planetAdded(name, after);
+            } else if (!samePlanet(before, after)) {
+                listener.planetChanged(name, before, after);
+            } else {
+                continue;
+            }
+            differences++;
+        }
+        return differences;
+    }
+
+    // EFFECTS: returns true if two central bodies, and their components, hold the same data
+    private static boolean sameCentralBody(CentralBodyFields before, CentralBodyFields after) {
+        if (before.codec != after.codec || !before.name.equals(after.name)
+                || Double.compare(before.mass, after.mass) != 0 || Double.compare(before.radius, after.radius) != 0
+                || Double.compare(before.luminosity, after.luminosity) != 0) {
+            return false;
+        }
+        for (int i = 0; i < before.codec.getComponentCount(); i++) {
+            if (!sameCentralBody(before.components[i], after.components[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: returns true if two planets hold the same data
+    private static boolean samePlanet(Planet before, Planet after) {
+        return Double.compare(before.getMass(), after.getMass()) == 0
+                && Double.compare(before.getRadius(), after.getRadius()) == 0
+                && Double.compare(before.getOrbitSize(), after.getOrbitSize()) == 0
+                && before.isMoon() == after.isMoon() && before.isRocky() == after.isRocky();
+    }
+
+    // Represents the solar systems of a file read one line at a time,
+    // checking that they come in order of name
+    private static class SortedSolarSystems implements Closeable {
+        private final String source;
+        private final BufferedReader reader;
+        private String previousName;
+        private long lineNumber;
+
+        // EFFECTS: opens source for reading; throws IOException if it cannot be opened
+        SortedSolarSystems(String source) throws IOException {
+            this.source = source;
+            reader = Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns the solar system on the next line that is not blank or a header, or null
+        //          at the end of the file; throws IOException if the line is not valid or out of order
+        SolarSystem next() throws IOException {
+            String line = reader.readLine();
+            lineNumber++;
+            while (line != null && (line.isBlank() || NdjsonReader.isHeader(line))) {
+                line = reader.readLine();
+                lineNumber++;
+            }
+            if (line == null) {
+                return null;
+            }
+            SolarSystem solarSystem = JsonStreamReader.parseSolarSystem(line);
+            if (previousName != null && previousName.compareTo(solarSystem.getName()) >= 0) {
+                throw new IOException(source + " line " + lineNumber + ": " + solarSystem.getName()
+                        + " is not in order of solar system name");
+            }
+            previousName = solarSystem.getName();
+            return solarSystem;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
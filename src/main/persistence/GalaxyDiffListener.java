@@ -0,0 +1,27 @@
+package persistence;
+
+import model.CentralBody;
+import model.Planet;
+import model.SolarSystem;
+
+// Represents a receiver of the differences GalaxyDiff finds between two saved galaxies,
+// told about them in order of solar system name and then planet name
+public interface GalaxyDiffListener {
+    // EFFECTS: reports a solar system that is only in the newer galaxy
+    void solarSystemAdded(SolarSystem added);
+
+    // EFFECTS: reports a solar system that is only in the older galaxy
+    void solarSystemRemoved(SolarSystem removed);
+
+    // EFFECTS: reports that the central body of a solar system in both galaxies has changed
+    void centralBodyChanged(String solarSystemName, CentralBody before, CentralBody after);
+
+    // EFFECTS: reports a planet that is only in the newer galaxy's version of a solar system
+    void planetAdded(String solarSystemName, Planet added);
+
+    // EFFECTS: reports a planet that is only in the older galaxy's version of a solar system
+    void planetRemoved(String solarSystemName, Planet removed);
+
+    // EFFECTS: reports a planet of a solar system whose data has changed
+    void planetChanged(String solarSystemName, Planet before, Planet after);
+}
@@ -9,27 +9,37 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 // Represents a reader that reads galaxy from JSON data stored in file
 public class JsonReader {
     private String source;
+    private ForkJoinPool pool;
 
     // EFFECTS: constructs reader to read from source file
     public JsonReader(String source) {
         this.source = source;
     }
 
-    // EFFECTS: reads galaxy from file and returns it;
+    // EFFECTS: constructs reader to read from source file that decodes solar systems
+    //          in parallel on pool
+    public JsonReader(String source, ForkJoinPool pool) {
+        this.source = source;
+        this.pool = pool;
+    }
+
+    // EFFECTS: reads galaxy from file and returns it, logging one summary event
+    //          instead of an event for every body;
     // throws IOException if an error occurs reading data from file
     public Galaxy read() throws IOException {
-        String jsonData = readFile(source);
-        JSONObject jsonObject = new JSONObject(jsonData);
-        Galaxy galaxy = parseGalaxy(jsonObject);
-
-        EventLog.getInstance().logEvent(new Event("Loaded galaxy"));
-
-        return galaxy;
+        try (BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad()) {
+            String jsonData = readFile(source);
+            JSONObject jsonObject = new JSONObject(jsonData);
+            Galaxy galaxy = parseGalaxy(jsonObject, bulkLoad);
+            bulkLoad.setGalaxy(galaxy);
+            return galaxy;
+        }
     }
 
     // EFFECTS: reads source file as string and returns it
@@ -43,32 +53,37 @@ public class JsonReader {
         return contentBuilder.toString();
     }
 
-    // EFFECTS: parses galaxy from JSON object and returns it
-    private Galaxy parseGalaxy(JSONObject jsonObject) {
+    // EFFECTS: parses galaxy from JSON object as part of bulkLoad and returns it
+    private Galaxy parseGalaxy(JSONObject jsonObject, BulkLoad bulkLoad) {
         String name = jsonObject.getString("name");
         Galaxy galaxy = new Galaxy(name);
-        addSolarSystems(galaxy, jsonObject);
+        addSolarSystems(galaxy, jsonObject, bulkLoad);
         return galaxy;
     }
 
     // MODIFIES: galaxy
-    // EFFECTS: parses solar systems from JSON object and adds them to galaxy
-    private void addSolarSystems(Galaxy galaxy, JSONObject jsonObject) {
+    // EFFECTS: parses solar systems from JSON object and adds them to galaxy in array order,
+    //          so a duplicate name is always reported for its second occurrence;
+    //          with a pool, the solar systems are decoded in parallel, as part of bulkLoad,
+    //          before they are added
+    private void addSolarSystems(Galaxy galaxy, JSONObject jsonObject, BulkLoad bulkLoad) {
         JSONArray jsonArray = jsonObject.getJSONArray("solarSystems");
-        for (Object json : jsonArray) {
-            JSONObject nextSolarSystem = (JSONObject) json;
-            addSolarSystem(galaxy, nextSolarSystem);
+        if (pool == null) {
+            for (Object json : jsonArray) {
+                addSolarSystem(galaxy, parseSolarSystem((JSONObject) json));
+            }
+        } else {
+            SolarSystem[] decoded = new SolarSystem[jsonArray.length()];
+            pool.invoke(new DecodeSolarSystemsTask(bulkLoad, jsonArray, decoded, 0, decoded.length));
+            for (SolarSystem solarSystem : decoded) {
+                addSolarSystem(galaxy, solarSystem);
+            }
         }
-
     }
 
     // MODIFIES: galaxy
-    // EFFECTS: parses solar system from JSON object and adds it to galaxy
-    private void addSolarSystem(Galaxy galaxy, JSONObject jsonSolarSystem) {
-        String name = jsonSolarSystem.getString("name");
-        CentralBody centralBody = readCentralBody(jsonSolarSystem.getJSONObject("centralBody"));
-        SolarSystem solarSystem = new SolarSystem(name, centralBody);
-        addPlanets(solarSystem, jsonSolarSystem);
+    // EFFECTS: adds solar system to galaxy
+    private void addSolarSystem(Galaxy galaxy, SolarSystem solarSystem) {
         try {
             galaxy.addSolarSystem(solarSystem);
         } catch (NameAlreadyUsedException e) {
@@ -76,32 +91,18 @@ public class JsonReader {
         }
     }
 
-    // EFFECT: reads and rebuilds central body
-    private CentralBody readCentralBody(JSONObject jsonCentralBody) {
-        String name = jsonCentralBody.getString("name");
-        String centralBodyType = jsonCentralBody.getString("centralBodyType");
-        double radius = jsonCentralBody.getDouble("radius");
-        double mass = jsonCentralBody.getDouble("mass");
-
-        if (centralBodyType.equals("Black Hole")) {
-            BlackHole blackHole = new BlackHole(name, centralBodyType, mass, radius);
-            return blackHole;
-        } else if (centralBodyType.equals("Neutron Star")) {
-            NeutronStar neutronStar = new NeutronStar(name, centralBodyType, mass, radius);
-            return neutronStar;
-        } else if (centralBodyType.equals("Giant Star")) {
-            double luminosity = jsonCentralBody.getDouble("luminosity");
-            GiantStar giantStar = new GiantStar(name, centralBodyType, mass, radius, luminosity);
-            return giantStar;
-        } else {
-            WhiteDwarf whiteDwarf = new WhiteDwarf(name, centralBodyType, mass, radius);
-            return whiteDwarf;
-        }
+    // EFFECTS: parses solar system and its planets from JSON object and returns it
+    static SolarSystem parseSolarSystem(JSONObject jsonSolarSystem) {
+        String name = jsonSolarSystem.getString("name");
+        CentralBody centralBody = CentralBodyCodecs.fromJson(jsonSolarSystem.getJSONObject("centralBody"));
+        SolarSystem solarSystem = new SolarSystem(name, centralBody);
+        addPlanets(solarSystem, jsonSolarSystem);
+        return solarSystem;
     }
 
     // MODIFIES: solarSystem
     // EFFECTS: parses planets from JSON object and adds it to solar systems
-    private void addPlanets(SolarSystem solarSystem, JSONObject jsonSolarSystem) {
+    private static void addPlanets(SolarSystem solarSystem, JSONObject jsonSolarSystem) {
         JSONArray jsonPlanets = jsonSolarSystem.getJSONArray("planets");
         for (Object json : jsonPlanets) {
             JSONObject nextPlanet = (JSONObject) json;
@@ -111,7 +112,7 @@ public class JsonReader {
 
     // MODIFIES: solarSystem
     // EFFECTS: parses planet from JSON object and adds it to solar system
-    private void addPlanet(SolarSystem solarSystem, JSONObject jsonPlanet) {
+    private static void addPlanet(SolarSystem solarSystem, JSONObject jsonPlanet) {
         String name = jsonPlanet.getString("name");
         double mass = jsonPlanet.getDouble("mass");
         double radius = jsonPlanet.getDouble("radius");
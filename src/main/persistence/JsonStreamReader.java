@@ -0,0 +1,306 @@
+package persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Predicate;
+
+// Represents a reader that reads galaxy from JSON data stored in file, building solar systems
+// and planets while it scans the file instead of first holding the whole document in memory.
+// Reads the same files as JsonReader.
+public class JsonStreamReader {
+    private static final int PROGRESS_INTERVAL = 64;   // solar systems between progress reports
+    private static final LoadProgress NO_PROGRESS = new LoadProgress() {
+        @Override
+        public void progress(long bytesRead, long totalBytes, int solarSystemsParsed) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+    private String source;
+
+    // EFFECTS: constructs reader to read from source file
+    public JsonStreamReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: reads galaxy from file and returns it, logging one summary event
+    //          instead of an event for every body;
+    // throws IOException if an error occurs reading data from file or the data is not valid JSON
+    public Galaxy read() throws IOException {
+        return read(NO_PROGRESS);
+    }
+
+    // EFFECTS: reads galaxy from file and returns it like read(), telling progress how much of the
+    //          file has been read and how many solar systems have been built as it goes, and
+    //          checking after every solar system whether progress wants the load to stop;
+    // throws IOException if an error occurs reading data from file or the data is not valid JSON;
+    // throws CancellationException if progress asks for the load to stop
+    public Galaxy read(LoadProgress progress) throws IOException {
+        try (BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad();
+             FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ);
+             Reader reader = new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8)) {
+            Galaxy galaxy = parseGalaxy(new JsonTokenReader(reader), channel, progress);
+            progress.progress(channel.size(), channel.size(), galaxy.getSolarSystemCount());
+            bulkLoad.setGalaxy(galaxy);
+            return galaxy;
+        }
+    }
+
+    // EFFECTS: parses galaxy from JSON tokens read from channel and returns it; solar systems that come
+    //          before the galaxy's name are held until the galaxy can be created
+    private Galaxy parseGalaxy(JsonTokenReader json, FileChannel channel, LoadProgress progress)
+            throws IOException {
+        Galaxy galaxy = null;
+        List<SolarSystem> pending = new ArrayList<>();
+        json.beginObject();
+        while (json.hasNext()) {
+            String key = json.nextName();
+            if (key.equals("name") && galaxy == null) {
+                galaxy = new Galaxy(json.nextString());
+                for (SolarSystem solarSystem : pending) {
+                    addSolarSystem(galaxy, solarSystem);
+                }
+                pending = null;
+            } else if (key.equals("solarSystems")) {
+                addSolarSystems(json, galaxy, pending, channel, progress);
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        json.endDocument();
+        if (galaxy == null) {
+            throw new IOException("Galaxy has no name");
+        }
+        return galaxy;
+    }
+
+    // MODIFIES: galaxy, pending
+    // EFFECTS: parses solar systems from JSON tokens and adds them to galaxy,
+    //          or to pending if the galaxy has not been created yet;
+    //          reports progress every PROGRESS_INTERVAL solar systems
+    private void addSolarSystems(JsonTokenReader json, Galaxy galaxy, List<SolarSystem> pending,
+                                 FileChannel channel, LoadProgress progress) throws IOException {
+        int parsed = 0;
+        json.beginArray();
+        while (json.hasNext()) {
+            SolarSystem solarSystem = parseSolarSystem(json);
+            if (galaxy == null) {
+                pending.add(solarSystem);
+            } else {
+                addSolarSystem(galaxy, solarSystem);
+            }
+            parsed++;
+            if (progress.isCancelled()) {
+                throw new CancellationException("Load of " + source + " cancelled");
+            } else if (parsed % PROGRESS_INTERVAL == 0) {
+                progress.progress(channel.position(), channel.size(), parsed);
+            }
+        }
+        json.endArray();
+    }
+
+    // MODIFIES: galaxy
+    // EFFECTS: adds solar system to galaxy
+    private void addSolarSystem(Galaxy galaxy, SolarSystem solarSystem) {
+        try {
+            galaxy.addSolarSystem(solarSystem);
+        } catch (NameAlreadyUsedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // EFFECTS: parses a solar system and its planets from a document that holds only that
+    //          solar system and returns it
+    static SolarSystem parseSolarSystem(String document) throws IOException {
+        JsonTokenReader json = new JsonTokenReader(document);
+        SolarSystem solarSystem = parseSolarSystem(json);
+        json.endDocument();
+        return solarSystem;
+    }
+
+    // EFFECTS: parses a solar system and its planets from JSON tokens and returns it
+    static SolarSystem parseSolarSystem(JsonTokenReader json) throws IOException {
+        return parseSolarSystem(json, name -> true);
+    }
+
+    // EFFECTS: parses a solar system and its planets from JSON tokens and returns it,
+    //          or returns null if wanted rejects its name; when the name comes first,
+    //          the rest of a rejected solar system is skipped without being built
+    @SuppressWarnings({"checkstyle:MethodLength", "checkstyle:SuppressWarnings"})
+    static SolarSystem parseSolarSystem(JsonTokenReader json, Predicate<String> wanted) throws IOException {
+        String name = null;
+        CentralBody centralBody = null;
+        List<Planet> planets = new ArrayList<>();
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "name":
+                    name = json.nextString();
+                    if (!wanted.test(name)) {
+                        skipRest(json);
+                        return null;
+                    }
+                    break;
+                case "centralBody":
+                    centralBody = parseCentralBody(json);
+                    break;
+                case "planets":
+                    parsePlanets(json, planets);
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        if (name == null || centralBody == null) {
+            throw new IOException("Solar system is missing its name or central body");
+        }
+        SolarSystem solarSystem = new SolarSystem(name, centralBody);
+        for (Planet planet : planets) {
+            solarSystem.addPlanet(planet);
+        }
+        return solarSystem;
+    }
+
+    // MODIFIES: json
+    // EFFECTS: skips the remaining members of the current object and its end
+    private static void skipRest(JsonTokenReader json) throws IOException {
+        while (json.hasNext()) {
+            json.nextName();
+            json.skipValue();
+        }
+        json.endObject();
+    }
+
+    // EFFECTS: parses and rebuilds a central body from JSON tokens
+    private static CentralBody parseCentralBody(JsonTokenReader json) throws IOException {
+        return CentralBodyCodecs.decode(parseCentralBodyFields(json));
+    }
+
+    // EFFECTS: parses the saved data of a central body and its components from JSON tokens;
+    //          throws IOException if a field is missing or its type has no codec
+    @SuppressWarnings({"checkstyle:MethodLength", "checkstyle:SuppressWarnings"})
+    private static CentralBodyFields parseCentralBodyFields(JsonTokenReader json) throws IOException {
+        CentralBodyFields fields = new CentralBodyFields();
+        String centralBodyType = null;
+        List<CentralBodyFields> components = new ArrayList<>();
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "name":
+                    fields.name = json.nextString();
+                    break;
+                case "centralBodyType":
+                    centralBodyType = json.nextString();
+                    break;
+                case "mass":
+                    fields.mass = json.nextDouble();
+                    break;
+                case "radius":
+                    fields.radius = json.nextDouble();
+                    break;
+                case "luminosity":
+                    fields.luminosity = json.nextDouble();
+                    break;
+                case "components":
+                    parseComponents(json, components);
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        if (fields.name == null || centralBodyType == null) {
+            throw new IOException("Central body is missing its name or type");
+        }
+        fields.codec = CentralBodyCodecs.forType(centralBodyType);
+        if (fields.codec == null) {
+            throw new IOException("Unknown central body type " + centralBodyType);
+        }
+        if (components.size() != fields.codec.getComponentCount()) {
+            throw new IOException(centralBodyType + " needs " + fields.codec.getComponentCount() + " components");
+        }
+        if (!components.isEmpty()) {
+            fields.components = components.toArray(new CentralBodyFields[0]);
+        }
+        return fields;
+    }
+
+    // MODIFIES: components
+    // EFFECTS: parses the saved data of the components of a central body and adds it to components
+    private static void parseComponents(JsonTokenReader json, List<CentralBodyFields> components)
+            throws IOException {
+        json.beginArray();
+        while (json.hasNext()) {
+            components.add(parseCentralBodyFields(json));
+        }
+        json.endArray();
+    }
+
+    // MODIFIES: planets
+    // EFFECTS: parses planets from JSON tokens and adds them to planets
+    private static void parsePlanets(JsonTokenReader json, List<Planet> planets) throws IOException {
+        json.beginArray();
+        while (json.hasNext()) {
+            planets.add(parsePlanet(json));
+        }
+        json.endArray();
+    }
+
+    // EFFECTS: parses a planet from JSON tokens and returns it
+    @SuppressWarnings({"checkstyle:MethodLength", "checkstyle:SuppressWarnings"})
+    private static Planet parsePlanet(JsonTokenReader json) throws IOException {
+        String name = null;
+        double mass = 0;
+        double radius = 0;
+        double orbitSize = 0;
+        boolean moon = false;
+        boolean rocky = false;
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "name":
+                    name = json.nextString();
+                    break;
+                case "mass":
+                    mass = json.nextDouble();
+                    break;
+                case "radius":
+                    radius = json.nextDouble();
+                    break;
+                case "orbitSize":
+                    orbitSize = json.nextDouble();
+                    break;
+                case "moon":
+                    moon = json.nextBoolean();
+                    break;
+                case "rocky":
+                    rocky = json.nextBoolean();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        if (name == null) {
+            throw new IOException("Planet has no name");
+        }
+        return new Planet(name, radius, mass, orbitSize, moon, rocky);
+    }
+}
@@ -0,0 +1,134 @@
+package persistence;
+
+import model.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Represents a writer that writes galaxy to a JSON file while walking the model,
+// without building a JSONObject tree or the whole document as a String first.
+// Writes the same schema that JsonReader and JsonStreamReader read.
+public class JsonStreamWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private String destination;
+    private boolean pretty;
+    private Writer writer;
+
+    // EFFECTS: constructs writer to write to destination file, indenting the JSON if pretty is true
+    public JsonStreamWriter(String destination, boolean pretty) {
+        this.destination = destination;
+        this.pretty = pretty;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer, replacing any existing file;
+    //          throws IOException if destination file cannot be opened for writing
+    public void open() throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(destination), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE),
+                BUFFER_SIZE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of galaxy to file;
+    //          throws IOException if the file cannot be written
+    public void write(Galaxy galaxy) throws IOException {
+        write(galaxy, -1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of galaxy to file, starting with a generation member
+    //          unless generation is negative; readers that do not know it skip it;
+    //          throws IOException if the file cannot be written
+    void write(Galaxy galaxy, long generation) throws IOException {
+        JsonTokenWriter json = new JsonTokenWriter(writer, pretty);
+        json.beginObject();
+        if (generation >= 0) {
+            json.name("generation").value(generation);
+        }
+        json.name("name").value(galaxy.getName());
+        json.name("solarSystemCount").value(galaxy.getSolarSystemCount());
+        json.name("solarSystems").beginArray();
+        for (SolarSystem s : galaxy.getSolarSystems().values()) {
+            writeSolarSystem(json, s);
+        }
+        json.endArray();
+        json.endObject();
+
+        EventLog.getInstance().logEvent(EventTemplate.GALAXY_SAVED, null, galaxy.getName());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer; throws IOException if the remaining data cannot be written
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    // EFFECTS: writes JSON representation of solar system and its planets
+    static void writeSolarSystem(JsonTokenWriter json, SolarSystem solarSystem) throws IOException {
+        writeSolarSystem(json, solarSystem, null);
+    }
+
+    // EFFECTS: writes JSON representation of solar system and its planets, starting with a
+    //          galaxy member naming the galaxy it belongs to unless galaxyName is null
+    static void writeSolarSystem(JsonTokenWriter json, SolarSystem solarSystem, String galaxyName)
+            throws IOException {
+        json.beginObject();
+        if (galaxyName != null) {
+            json.name("galaxy").value(galaxyName);
+        }
+        json.name("name").value(solarSystem.getName());
+        json.name("centralBody");
+        writeCentralBody(json, solarSystem.getCentralBody());
+        json.name("planets").beginArray();
+        for (Planet p : solarSystem.getPlanets().values()) {
+            writePlanet(json, p);
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    // EFFECTS: writes JSON representation of central body
+    private static void writeCentralBody(JsonTokenWriter json, CentralBody centralBody) throws IOException {
+        writeCentralBody(json, CentralBodyCodecs.encode(centralBody));
+    }
+
+    // EFFECTS: writes JSON representation of the saved data of a central body and its components
+    private static void writeCentralBody(JsonTokenWriter json, CentralBodyFields fields) throws IOException {
+        json.beginObject();
+        json.name("name").value(fields.name);
+        json.name("centralBodyType").value(fields.codec.getType());
+        json.name("mass").value(fields.mass);
+        json.name("radius").value(fields.radius);
+        if (fields.codec.hasLuminosity()) {
+            json.name("luminosity").value(fields.luminosity);
+        }
+        if (fields.codec.getComponentCount() > 0) {
+            json.name("components").beginArray();
+            for (CentralBodyFields component : fields.components) {
+                writeCentralBody(json, component);
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    // EFFECTS: writes JSON representation of planet
+    private static void writePlanet(JsonTokenWriter json, Planet planet) throws IOException {
+        json.beginObject();
+        json.name("name").value(planet.getName());
+        json.name("mass").value(planet.getMass());
+        json.name("radius").value(planet.getRadius());
+        json.name("orbitSize").value(planet.getOrbitSize());
+        json.name("rocky").value(planet.isRocky());
+        json.name("moon").value(planet.isMoon());
+        json.endObject();
+    }
+}
@@ -0,0 +1,360 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+// Represents a pull parser that reads JSON values one token at a time from a
+// character stream, so a document can be processed without building it in memory.
+// Each open object or array remembers whether it has a member yet, so commas are required
+// between members and a comma before a closing bracket is rejected.
+class JsonTokenReader {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int NONEMPTY_OBJECT = 3;
+    private static final int AFTER_NAME = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+    private final Reader in;
+    private final char[] buffer;
+    private final StringBuilder text = new StringBuilder();
+    private int position;
+    private int limit;
+    private long charsBefore;     // characters consumed before the current buffer
+    private int[] scopes = new int[16];
+    private int depth = 1;        // scopes[depth - 1] is the innermost scope
+
+    // EFFECTS: constructs a token reader over the given characters
+    JsonTokenReader(Reader in) {
+        this.in = in;
+        buffer = new char[BUFFER_SIZE];
+    }
+
+    // EFFECTS: constructs a token reader over text, reading it in place of a buffer
+    JsonTokenReader(String text) {
+        this.in = null;
+        buffer = text.toCharArray();
+        limit = buffer.length;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the start of an object; throws IOException if something else is next
+    void beginObject() throws IOException {
+        beforeValue();
+        expect('{');
+        push(EMPTY_OBJECT);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the end of an object; throws IOException if something else is next
+    void endObject() throws IOException {
+        int scope = scopes[depth - 1];
+        if (scope != EMPTY_OBJECT && scope != NONEMPTY_OBJECT) {
+            throw error("Expected '}'");
+        }
+        expect('}');
+        depth--;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the start of an array; throws IOException if something else is next
+    void beginArray() throws IOException {
+        beforeValue();
+        expect('[');
+        push(EMPTY_ARRAY);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the end of an array; throws IOException if something else is next
+    void endArray() throws IOException {
+        if (scopes[depth - 1] != EMPTY_ARRAY && scopes[depth - 1] != NONEMPTY_ARRAY) {
+            throw error("Expected ']'");
+        }
+        expect(']');
+        depth--;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if the current object or array has another member; the comma
+    //          before it is consumed when the member is read
+    boolean hasNext() throws IOException {
+        int c = peek();
+        int scope = scopes[depth - 1];
+        if (c == ',' && (scope == EMPTY_OBJECT || scope == EMPTY_ARRAY)) {
+            throw error("Unexpected ','");
+        }
+        return c != '}' && c != ']' && c != -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: checks that nothing but whitespace follows the root value; throws IOException
+    //          if the document is incomplete or has more data after it
+    void endDocument() throws IOException {
+        if (depth != 1 || scopes[0] != NONEMPTY_DOCUMENT) {
+            throw error("Unexpected end of document");
+        }
+        if (peek() != -1) {
+            throw error("Unexpected data after the root value");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the name of the next object member and the colon after it
+    String nextName() throws IOException {
+        int scope = scopes[depth - 1];
+        if (scope == NONEMPTY_OBJECT) {
+            expect(',');
+        } else if (scope != EMPTY_OBJECT) {
+            throw error("Expected a value");
+        }
+        String name = readString();
+        expect(':');
+        scopes[depth - 1] = AFTER_NAME;
+        return name;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a string value; throws IOException if a string is not next
+    String nextString() throws IOException {
+        beforeValue();
+        return readString();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the characters of a string; throws IOException if a string is not next
+    private String readString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return text.toString();
+            } else if (c == '\\') {
+                text.append(readEscape());
+            } else if (c == -1) {
+                throw error("Unterminated string");
+            } else {
+                text.append((char) c);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a number value; throws IOException if a number is not next
+    double nextDouble() throws IOException {
+        beforeValue();
+        readLiteralText();
+        if (!NumberCodec.isJsonNumber(text, 0, text.length())) {
+            throw error("Expected a number but found " + text);
+        }
+        try {
+            return NumberCodec.parseDouble(text, 0, text.length());
+        } catch (NumberFormatException e) {
+            throw error("Expected a number but found " + text);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a boolean value; throws IOException if a boolean is not next
+    boolean nextBoolean() throws IOException {
+        beforeValue();
+        String literal = readLiteral();
+        if (literal.equals("true")) {
+            return true;
+        } else if (literal.equals("false")) {
+            return false;
+        }
+        throw error("Expected a boolean but found " + literal);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads and discards the next value, including any nested objects and arrays
+    void skipValue() throws IOException {
+        beforeValue();
+        int c = peek();
+        if (c == '"') {
+            readString();
+        } else if (c == '{' || c == '[') {
+            position++;
+            push(c == '{' ? EMPTY_OBJECT : EMPTY_ARRAY);
+            while (hasNext()) {
+                if (c == '{') {
+                    nextName();
+                }
+                skipValue();
+            }
+            if (c == '{') {
+                endObject();
+            } else {
+                endArray();
+            }
+        } else {
+            skipLiteral();
+        }
+    }
+
+    // EFFECTS: returns the number of characters consumed so far
+    long getCharsRead() {
+        return charsBefore + position;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads and discards a number, true, false or null; throws IOException if
+    //          something else is next
+    private void skipLiteral() throws IOException {
+        String literal = readLiteral();
+        if (!literal.equals("true") && !literal.equals("false") && !literal.equals("null")
+                && !NumberCodec.isJsonNumber(text, 0, text.length())) {
+            throw error("Expected a value but found " + literal);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the comma before a value where one is required and records that the
+    //          innermost scope has a value; throws IOException if a value is not allowed here
+    private void beforeValue() throws IOException {
+        switch (scopes[depth - 1]) {
+            case EMPTY_DOCUMENT:
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+                break;
+            case AFTER_NAME:
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                break;
+            case EMPTY_ARRAY:
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                break;
+            case NONEMPTY_ARRAY:
+                expect(',');
+                break;
+            case NONEMPTY_DOCUMENT:
+                throw error("Unexpected data after the root value");
+            default:
+                throw error("Expected a name");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens a nested scope
+    private void push(int scope) {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+        scopes[depth++] = scope;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a number, true, false or null as text
+    private String readLiteral() throws IOException {
+        readLiteralText();
+        return text.toString();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a number, true, false or null into text
+    private void readLiteralText() throws IOException {
+        peek();
+        text.setLength(0);
+        while (true) {
+            int c = position < limit || fill() ? buffer[position] : -1;
+            if (c == -1 || c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+                break;
+            }
+            text.append((char) c);
+            position++;
+        }
+        if (text.length() == 0) {
+            throw error("Expected a value");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the character after a backslash in a string and returns what it stands for
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                return readUnicodeEscape();
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            default:
+                throw error("Invalid escape sequence");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the four hex digits of a unicode escape
+    private char readUnicodeEscape() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw error("Invalid unicode escape");
+            }
+            value = value * 16 + digit;
+        }
+        return (char) value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the given character after any whitespace; throws IOException otherwise
+    private void expect(char expected) throws IOException {
+        if (peek() != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+        position++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and returns the next character without consuming it,
+    //          or -1 at the end of the input
+    private int peek() throws IOException {
+        while (position < limit || fill()) {
+            char c = buffer[position];
+            if (!Character.isWhitespace(c)) {
+                return c;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and returns the next character, or -1 at the end of the input
+    private int read() throws IOException {
+        if (position < limit || fill()) {
+            return buffer[position++];
+        }
+        return -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: refills the buffer; returns false if the input is exhausted
+    private boolean fill() throws IOException {
+        if (in == null) {
+            return false;
+        }
+        charsBefore += limit;
+        position = 0;
+        limit = Math.max(in.read(buffer), 0);
+        return limit > 0;
+    }
+
+    // EFFECTS: returns an exception describing a problem at the current position
+    private IOException error(String message) {
+        return new IOException(message + " at character " + getCharsRead());
+    }
+}
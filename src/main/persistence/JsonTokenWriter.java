@@ -0,0 +1,156 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Represents a writer that emits a JSON document one token at a time, adding the
+// commas between values and, if pretty printing, newlines and indentation.
+class JsonTokenWriter {
+    private static final int INDENT = 4;
+    private final Writer out;
+    private final boolean pretty;
+    private final char[] number = new char[NumberCodec.MAX_CHARS];
+    private boolean[] hasMembers = new boolean[16];   // whether each open object/array has a member
+    private int depth;
+    private boolean afterName;
+
+    // EFFECTS: constructs a token writer over out, indenting nested values if pretty is true
+    JsonTokenWriter(Writer out, boolean pretty) {
+        this.out = out;
+        this.pretty = pretty;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts an object
+    JsonTokenWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: ends the current object
+    JsonTokenWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts an array
+    JsonTokenWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: ends the current array
+    JsonTokenWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the name of the next object member
+    JsonTokenWriter name(String name) throws IOException {
+        beforeValue();
+        writeString(name);
+        out.write(pretty ? ": " : ":");
+        afterName = true;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a string value
+    JsonTokenWriter value(String value) throws IOException {
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a number value with the fewest digits that read back as the same number,
+    //          without a fractional part if it is a whole number;
+    //          throws IOException if the value is infinite or NaN, which JSON does not allow
+    JsonTokenWriter value(double value) throws IOException {
+        if (!Double.isFinite(value)) {
+            throw new IOException("JSON does not allow the number " + value);
+        }
+        beforeValue();
+        out.write(number, 0, NumberCodec.format(value, number));
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a boolean value
+    JsonTokenWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the opening bracket of an object or array
+    private JsonTokenWriter open(char bracket) throws IOException {
+        beforeValue();
+        out.write(bracket);
+        depth++;
+        if (depth == hasMembers.length) {
+            boolean[] grown = new boolean[depth * 2];
+            System.arraycopy(hasMembers, 0, grown, 0, depth);
+            hasMembers = grown;
+        }
+        hasMembers[depth] = false;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the closing bracket of an object or array
+    private JsonTokenWriter close(char bracket) throws IOException {
+        depth--;
+        if (hasMembers[depth + 1]) {
+            newline();
+        }
+        out.write(bracket);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the comma and indentation needed before a name or value
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (hasMembers[depth]) {
+                out.write(',');
+            }
+            hasMembers[depth] = true;
+            newline();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a new indented line if pretty printing
+    private void newline() throws IOException {
+        if (pretty) {
+            out.write('\n');
+            for (int i = 0; i < depth * INDENT; i++) {
+                out.write(' ');
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a quoted string, escaping characters JSON does not allow
+    private void writeString(String s) throws IOException {
+        out.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write(String.format("\\u%04x", (int) c));
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('"');
+    }
+}
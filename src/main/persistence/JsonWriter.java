@@ -1,7 +1,7 @@
 package persistence;
 
-import model.Event;
 import model.EventLog;
+import model.EventTemplate;
 import model.Galaxy;
 import org.json.JSONObject;
 
@@ -33,7 +33,7 @@ public class JsonWriter {
         JSONObject json = galaxy.toJson();
         saveToFile(json.toString(TAB));
 
-        EventLog.getInstance().logEvent(new Event("Saved galaxy"));
+        EventLog.getInstance().logEvent(EventTemplate.GALAXY_SAVED, null, galaxy.getName());
     }
 
     // MODIFIES: this
@@ -0,0 +1,12 @@
+package persistence;
+
+// Represents a receiver of progress reports while a galaxy is being loaded,
+// which can also ask for the load to stop
+public interface LoadProgress {
+    // EFFECTS: reports that bytesRead of the totalBytes in the file have been read
+    //          and solarSystemsParsed solar systems have been built so far
+    void progress(long bytesRead, long totalBytes, int solarSystemsParsed);
+
+    // EFFECTS: returns true if the load should stop
+    boolean isCancelled();
+}
@@ -0,0 +1,185 @@
+package persistence;
+
+import model.*;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Represents the solar systems of a memory-mapped binary snapshot. Opening reads only the fixed
+// header; solar systems are found by binary search of the sorted directory, and names and records
+// are decoded through the string index when they are used, so only the pages that are used get
+// read from disk.
+class MappedSnapshot implements SolarSystemSource {
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int stringIndex;       // position of the string index
+    private final int directory;         // position of the directory
+    private final int solarSystemCount;
+    private final String galaxyName;
+    private final Set<String> names = new DirectoryNames();
+
+    // EFFECTS: opens the snapshot held in buffer; throws IOException if it is not a snapshot
+    MappedSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        try {
+            if (buffer.getInt() != BinarySnapshotWriter.MAGIC) {
+                throw new IOException("Not a galaxy snapshot");
+            }
+            short version = buffer.getShort();
+            if (version != BinarySnapshotWriter.VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            int galaxyNameIndex = buffer.getInt();
+            solarSystemCount = buffer.getInt();
+            stringCount = buffer.getInt();
+            stringIndex = buffer.position();
+            directory = Math.addExact(stringIndex,
+                    Math.multiplyExact(stringCount, BinarySnapshotWriter.STRING_INDEX_ENTRY_BYTES));
+            int directoryEnd = Math.addExact(directory,
+                    Math.multiplyExact(solarSystemCount, BinarySnapshotWriter.DIRECTORY_ENTRY_BYTES));
+            if (stringCount < 0 || solarSystemCount < 0 || directoryEnd > buffer.limit()) {
+                throw new IOException("Snapshot is truncated or corrupt");
+            }
+            galaxyName = string(galaxyNameIndex);
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+                | ArithmeticException e) {
+            throw new IOException("Snapshot is truncated or corrupt", e);
+        }
+    }
+
+    String getGalaxyName() {
+        return galaxyName;
+    }
+
+    // EFFECTS: returns the names of the solar systems in the snapshot, decoded as they are used
+    @Override
+    public Set<String> names() {
+        return names;
+    }
+
+    // REQUIRES: name is one of names()
+    // EFFECTS: decodes the solar system with the given name and its planets from the snapshot
+    @Override
+    public SolarSystem load(String name) {
+        BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad();
+        try {
+            ByteBuffer record = buffer.duplicate();
+            record.position((int) buffer.getLong(entry(find(name)) + 4));
+            SolarSystem solarSystem = new SolarSystem(name, CentralBodyCodecs.decode(readCentralBody(record)));
+            int planetCount = record.getInt();
+            for (int i = 0; i < planetCount; i++) {
+                String planetName = string(record.getInt());
+                double planetMass = record.getDouble();
+                double planetRadius = record.getDouble();
+                double orbitSize = record.getDouble();
+                byte flags = record.get();
+                solarSystem.addPlanet(new Planet(planetName, planetRadius, planetMass, orbitSize,
+                        (flags & BinarySnapshotWriter.MOON) != 0, (flags & BinarySnapshotWriter.ROCKY) != 0));
+            }
+            return solarSystem;
+        } finally {
+            bulkLoad.close();
+        }
+    }
+
+    // EFFECTS: decodes the record for a central body and the records of its components from record;
+    //          throws IllegalStateException if its tag has no codec
+    private CentralBodyFields readCentralBody(ByteBuffer record) {
+        CentralBodyFields fields = new CentralBodyFields();
+        byte tag = record.get();
+        fields.codec = CentralBodyCodecs.forTag(tag);
+        if (fields.codec == null) {
+            throw new IllegalStateException("Snapshot is corrupt: unknown central body tag " + tag);
+        }
+        fields.name = string(record.getInt());
+        fields.mass = record.getDouble();
+        fields.radius = record.getDouble();
+        fields.luminosity = record.getDouble();
+        fields.components = new CentralBodyFields[fields.codec.getComponentCount()];
+        for (int i = 0; i < fields.components.length; i++) {
+            fields.components[i] = readCentralBody(record);
+        }
+        return fields;
+    }
+
+    // EFFECTS: returns the directory entry of the solar system with the given name, or -1 if there is none
+    private int find(String name) {
+        int low = 0;
+        int high = solarSystemCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int order = entryName(middle).compareTo(name);
+            if (order < 0) {
+                low = middle + 1;
+            } else if (order > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns the position of the directory entry with the given number
+    private int entry(int number) {
+        return directory + number * BinarySnapshotWriter.DIRECTORY_ENTRY_BYTES;
+    }
+
+    // EFFECTS: decodes the name of the solar system in the directory entry with the given number
+    private String entryName(int number) {
+        return string(buffer.getInt(entry(number)));
+    }
+
+    // EFFECTS: decodes the string with the given index in the string table;
+    //          throws IndexOutOfBoundsException if there is no such string
+    private String string(int index) {
+        if (index < 0 || index >= stringCount) {
+            throw new IndexOutOfBoundsException("No string " + index + " in snapshot");
+        }
+        ByteBuffer bytes = buffer.duplicate();
+        bytes.position((int) buffer.getLong(stringIndex + index * BinarySnapshotWriter.STRING_INDEX_ENTRY_BYTES));
+        byte[] utf8 = new byte[bytes.getInt()];
+        bytes.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // Represents the names in the directory as a set, without decoding them all up front
+    private class DirectoryNames extends AbstractSet<String> {
+
+        @Override
+        public int size() {
+            return solarSystemCount;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String && find((String) o) >= 0;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<>() {
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < solarSystemCount;
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return entryName(next++);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package persistence;
+
+import model.BulkLoad;
+import model.EventLog;
+import model.Galaxy;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Represents a reader that opens a binary snapshot file written by BinarySnapshotWriter by
+// memory-mapping it. Only the header and the galaxy's name are read up front; solar systems are
+// looked up in the snapshot's directory, and each one and its planets are built the first time
+// the galaxy is asked for it.
+public class MappedSnapshotReader {
+    private String source;
+
+    // EFFECTS: constructs reader to read from source file
+    public MappedSnapshotReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: maps the file and returns a galaxy that loads its solar systems from it on first use;
+    // throws IOException if the file cannot be mapped or it is not a snapshot
+    public Galaxy read() throws IOException {
+        try (BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad();
+             FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is too large to map: " + channel.size() + " bytes");
+            }
+            MappedSnapshot snapshot = new MappedSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size()));
+            Galaxy galaxy = new Galaxy(snapshot.getGalaxyName(), snapshot);
+            bulkLoad.setGalaxy(galaxy);
+            return galaxy;
+        }
+    }
+}
@@ -0,0 +1,521 @@
+package persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// Represents a write-ahead journal of the changes made to a galaxy since it was last saved.
+// Set as a galaxy's listener, it appends a compact binary record for every change. Records are
+// buffered and a background thread writes and fsyncs them together once per commit interval,
+// so a crash loses at most the changes of the last interval.
+// Replaying the journal over the last saved galaxy restores the changes made since the save.
+// Each record is: length, operation, the operation's fields, CRC-32 of the operation and fields.
+public class MutationJournal implements GalaxyListener {
+    static final byte GALAXY_RESET = 0;
+    static final byte GALAXY_RENAMED = 1;
+    static final byte SOLAR_SYSTEM_ADDED = 2;
+    static final byte SOLAR_SYSTEM_REMOVED = 3;
+    static final byte SOLAR_SYSTEM_RENAMED = 4;
+    static final byte PLANET_ADDED = 5;
+    static final byte PLANET_REMOVED = 6;
+    static final byte PLANETS_CLEARED = 7;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;   // largest record written or replayed
+    private final Path path;
+    private final long commitIntervalMs;
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    private final DataOutputStream fields = new DataOutputStream(record);
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private DataOutputStream out;
+    private ScheduledExecutorService committer;
+    private IOException failure;   // first error writing a record, reported by the next sync
+
+    // REQUIRES: commitIntervalMs must be positive
+    // EFFECTS: constructs a journal appending to the file at path and
+    //          committing the appended records every commitIntervalMs milliseconds
+    public MutationJournal(String path, long commitIntervalMs) {
+        this.path = Paths.get(path);
+        this.commitIntervalMs = commitIntervalMs;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the journal for appending and starts committing records in the background;
+    //          throws IOException if the file cannot be opened
+    public synchronized void open() throws IOException {
+        openChannel();
+        committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mutation-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        committer.scheduleWithFixedDelay(this::syncQuietly, commitIntervalMs, commitIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    // EFFECTS: writes the buffered records to the journal and forces them to disk;
+    //          throws IOException if a record could not be written
+    public void sync() throws IOException {
+        FileChannel synced;
+        synchronized (this) {
+            checkFailure();
+            out.flush();
+            synced = channel;
+        }
+        try {
+            synced.force(false);
+        } catch (ClosedChannelException e) {
+            synchronized (this) {
+                if (synced == channel) {
+                    throw e;
+                }
+            }
+            // replaced by a checkpoint, which forced the records it kept
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: empties the journal, once the galaxy it records has been saved;
+    //          throws IOException if the journal cannot be truncated
+    public synchronized void checkpoint() throws IOException {
+        checkpoint(mark());
+    }
+
+    // EFFECTS: writes the buffered records to the journal and returns its length, to be passed
+    //          to checkpoint once a copy of the galaxy taken now has been saved;
+    //          throws IOException if a record could not be written
+    public synchronized long mark() throws IOException {
+        checkFailure();
+        out.flush();
+        return channel.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops the records before mark, once the galaxy they change has been saved;
+    //          records appended since mark are kept, by moving them to a new journal that
+    //          replaces the old one in one step; the journal is only switched to the new file
+    //          once the rename has succeeded, so a failure leaves the old one in use;
+    //          throws IOException if the journal cannot be rewritten
+    public synchronized void checkpoint(long mark) throws IOException {
+        checkFailure();
+        out.flush();
+        long size = channel.size();
+        if (mark >= size) {
+            channel.truncate(0);
+            channel.force(false);
+            return;
+        }
+        FileChannel tail = replaceWithTail(mark, size);
+        out.close();
+        useChannel(tail);
+    }
+
+    // EFFECTS: copies the records from mark to size into a new file, forces it to disk, renames it
+    //          over the journal and forces the rename; returns a channel open on the new journal,
+    //          positioned at its end; throws IOException, leaving the journal as it was, if the
+    //          new file cannot be written or renamed
+    private FileChannel replaceWithTail(long mark, long size) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        FileChannel tail = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            try (FileChannel journal = FileChannel.open(path, StandardOpenOption.READ)) {
+                for (long position = mark; position < size; ) {
+                    position += journal.transferTo(position, size - position, tail);
+                }
+            }
+            tail.force(false);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            tail.close();
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        FileSync.forceDirectory(path.toAbsolutePath().getParent());
+        return tail;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: empties the journal and records that it starts from a new, empty galaxy
+    //          with the given name instead of the last saved galaxy;
+    //          throws IOException if the journal cannot be written
+    public synchronized void reset(String galaxyName) throws IOException {
+        checkpoint();
+        begin(GALAXY_RESET);
+        fields.writeUTF(galaxyName);
+        end();
+        sync();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the background commits, commits the remaining records and closes the journal;
+    //          throws IOException if they cannot be written
+    public void close() throws IOException {
+        committer.shutdown();
+        sync();
+        synchronized (this) {
+            out.close();
+        }
+    }
+
+    // REQUIRES: galaxy has no listener
+    // MODIFIES: galaxy
+    // EFFECTS: applies the changes recorded in the journal at path to galaxy and returns how many
+    //          there were; stops at a record cut short or corrupted by a crash;
+    //          a missing journal holds no changes; throws IOException if the journal cannot be read
+    public static int replay(String path, Galaxy galaxy) throws IOException {
+        int count = 0;
+        BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(Paths.get(path)), BUFFER_SIZE))) {
+            byte[] bytes = readRecord(in);
+            while (bytes != null) {
+                apply(galaxy, new DataInputStream(new ByteArrayInputStream(bytes)));
+                count++;
+                bytes = readRecord(in);
+            }
+        } catch (NoSuchFileException e) {
+            return 0;
+        } finally {
+            bulkLoad.close();
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized void galaxyRenamed(Galaxy galaxy) {
+        try {
+            begin(GALAXY_RENAMED);
+            fields.writeUTF(galaxy.getName());
+            end();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // EFFECTS: records the solar system and its planets in one record or, if that record would be
+    //          larger than replay accepts, the solar system alone followed by a record for each planet
+    @Override
+    public synchronized void solarSystemAdded(Galaxy galaxy, SolarSystem solarSystem) {
+        try {
+            begin(SOLAR_SYSTEM_ADDED);
+            writeSolarSystem(fields, solarSystem, true);
+            if (record.size() > MAX_RECORD_BYTES) {
+                begin(SOLAR_SYSTEM_ADDED);
+                writeSolarSystem(fields, solarSystem, false);
+                end();
+                for (Planet p : solarSystem.getPlanets().values()) {
+                    planetAdded(solarSystem, p);
+                }
+            } else {
+                end();
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public synchronized void solarSystemRemoved(Galaxy galaxy, String solarSystemName) {
+        try {
+            begin(SOLAR_SYSTEM_REMOVED);
+            fields.writeUTF(solarSystemName);
+            end();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public synchronized void solarSystemRenamed(SolarSystem solarSystem, String oldName) {
+        try {
+            begin(SOLAR_SYSTEM_RENAMED);
+            fields.writeUTF(oldName);
+            fields.writeUTF(solarSystem.getName());
+            end();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public synchronized void planetAdded(SolarSystem solarSystem, Planet planet) {
+        try {
+            begin(PLANET_ADDED);
+            fields.writeUTF(solarSystem.getName());
+            writePlanet(fields, planet);
+            end();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public synchronized void planetRemoved(SolarSystem solarSystem, String planetName) {
+        try {
+            begin(PLANET_REMOVED);
+            fields.writeUTF(solarSystem.getName());
+            fields.writeUTF(planetName);
+            end();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public synchronized void planetsCleared(SolarSystem solarSystem) {
+        try {
+            begin(PLANETS_CLEARED);
+            fields.writeUTF(solarSystem.getName());
+            end();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the journal file for appending
+    private void openChannel() throws IOException {
+        useChannel(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends records to the journal through the given channel, which is positioned
+    //          at the end of the journal
+    private void useChannel(FileChannel journal) {
+        channel = journal;
+        out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a new record for the given operation
+    private void begin(byte operation) throws IOException {
+        record.reset();
+        fields.writeByte(operation);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the record built since begin to the buffered journal;
+    //          throws IOException if it is larger than replay accepts
+    private void end() throws IOException {
+        if (record.size() > MAX_RECORD_BYTES) {
+            throw new IOException("Journal record of " + record.size() + " bytes is larger than "
+                    + MAX_RECORD_BYTES + " bytes");
+        }
+        byte[] bytes = record.toByteArray();
+        crc.reset();
+        crc.update(bytes);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeInt((int) crc.getValue());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: remembers the first error, since listener methods cannot throw it
+    private void fail(IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+    }
+
+    // EFFECTS: throws the first error met while writing a record, if any
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: commits the buffered records, leaving any error for the next sync to report
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException expected) {
+            // reported by the next sync, checkpoint or close
+        }
+    }
+
+    // EFFECTS: reads the next record and returns its operation and fields,
+    //          or null at the end of the journal or at a record cut short or corrupted
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            return in.readInt() == (int) crc.getValue() ? bytes : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    // MODIFIES: galaxy
+    // EFFECTS: applies one recorded change to galaxy; changes to solar systems that are not
+    //          in galaxy are skipped
+    @SuppressWarnings({"checkstyle:MethodLength", "checkstyle:SuppressWarnings"})
+    private static void apply(Galaxy galaxy, DataInput in) throws IOException {
+        byte operation = in.readByte();
+        switch (operation) {
+            case GALAXY_RESET:
+                for (String name : new ArrayList<>(galaxy.getSolarSystems().keySet())) {
+                    galaxy.removeSolarSystem(name);
+                }
+                galaxy.changeName(in.readUTF());
+                break;
+            case GALAXY_RENAMED:
+                galaxy.changeName(in.readUTF());
+                break;
+            case SOLAR_SYSTEM_ADDED:
+                putSolarSystem(galaxy, readSolarSystem(in));
+                break;
+            case SOLAR_SYSTEM_REMOVED:
+                String removed = in.readUTF();
+                if (galaxy.hasSolarSystem(removed)) {
+                    galaxy.removeSolarSystem(removed);
+                }
+                break;
+            default:
+                applyToSolarSystem(galaxy.getSolarSystem(in.readUTF()), operation, in);
+        }
+    }
+
+    // MODIFIES: solarSystem
+    // EFFECTS: applies one recorded change to solarSystem, unless it is null
+    private static void applyToSolarSystem(SolarSystem solarSystem, byte operation, DataInput in)
+            throws IOException {
+        if (solarSystem == null) {
+            return;
+        }
+        switch (operation) {
+            case SOLAR_SYSTEM_RENAMED:
+                solarSystem.changeName(in.readUTF());
+                break;
+            case PLANET_ADDED:
+                solarSystem.addPlanet(readPlanet(in));
+                break;
+            case PLANET_REMOVED:
+                solarSystem.removePlanet(in.readUTF());
+                break;
+            case PLANETS_CLEARED:
+                solarSystem.clearPlanets();
+                break;
+            default:
+                throw new IOException("Unknown journal operation " + operation);
+        }
+    }
+
+    // MODIFIES: galaxy
+    // EFFECTS: adds solar system to galaxy, replacing any solar system with the same name
+    private static void putSolarSystem(Galaxy galaxy, SolarSystem solarSystem) {
+        if (galaxy.hasSolarSystem(solarSystem.getName())) {
+            galaxy.removeSolarSystem(solarSystem.getName());
+        }
+        try {
+            galaxy.addSolarSystem(solarSystem);
+        } catch (NameAlreadyUsedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // EFFECTS: writes the fields of a solar system, its central body and, if withPlanets is true,
+    //          its planets; otherwise it is written with no planets
+    private static void writeSolarSystem(DataOutput out, SolarSystem solarSystem, boolean withPlanets)
+            throws IOException {
+        out.writeUTF(solarSystem.getName());
+        writeCentralBody(out, CentralBodyCodecs.encode(solarSystem.getCentralBody()));
+        out.writeInt(withPlanets ? solarSystem.getPlanets().size() : 0);
+        if (withPlanets) {
+            for (Planet p : solarSystem.getPlanets().values()) {
+                writePlanet(out, p);
+            }
+        }
+    }
+
+    // EFFECTS: reads the fields written by writeSolarSystem and rebuilds the solar system
+    private static SolarSystem readSolarSystem(DataInput in) throws IOException {
+        String name = in.readUTF();
+        SolarSystem solarSystem = new SolarSystem(name, CentralBodyCodecs.decode(readCentralBody(in)));
+        int planetCount = in.readInt();
+        for (int i = 0; i < planetCount; i++) {
+            solarSystem.addPlanet(readPlanet(in));
+        }
+        return solarSystem;
+    }
+
+    // EFFECTS: writes the tag and fields of a central body followed by those of its components
+    private static void writeCentralBody(DataOutput out, CentralBodyFields fields) throws IOException {
+        out.writeByte(fields.codec.getTag());
+        out.writeUTF(fields.name);
+        out.writeDouble(fields.mass);
+        out.writeDouble(fields.radius);
+        out.writeDouble(fields.luminosity);
+        for (int i = 0; i < fields.codec.getComponentCount(); i++) {
+            writeCentralBody(out, fields.components[i]);
+        }
+    }
+
+    // EFFECTS: reads the fields written by writeCentralBody;
+    //          throws IOException if the tag has no codec
+    private static CentralBodyFields readCentralBody(DataInput in) throws IOException {
+        CentralBodyFields fields = new CentralBodyFields();
+        byte tag = in.readByte();
+        fields.codec = CentralBodyCodecs.forTag(tag);
+        if (fields.codec == null) {
+            throw new IOException("Unknown central body tag " + tag);
+        }
+        fields.name = in.readUTF();
+        fields.mass = in.readDouble();
+        fields.radius = in.readDouble();
+        fields.luminosity = in.readDouble();
+        fields.components = new CentralBodyFields[fields.codec.getComponentCount()];
+        for (int i = 0; i < fields.components.length; i++) {
+            fields.components[i] = readCentralBody(in);
+        }
+        return fields;
+    }
+
+    // EFFECTS: writes the fields of a planet
+    private static void writePlanet(DataOutput out, Planet planet) throws IOException {
+        out.writeUTF(planet.getName());
+        out.writeDouble(planet.getRadius());
+        out.writeDouble(planet.getMass());
+        out.writeDouble(planet.getOrbitSize());
+        out.writeBoolean(planet.isMoon());
+        out.writeBoolean(planet.isRocky());
+    }
+
+    // EFFECTS: reads the fields written by writePlanet and rebuilds the planet
+    private static Planet readPlanet(DataInput in) throws IOException {
+        return new Planet(in.readUTF(), in.readDouble(), in.readDouble(), in.readDouble(),
+                in.readBoolean(), in.readBoolean());
+    }
+}
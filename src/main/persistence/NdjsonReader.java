@@ -0,0 +1,229 @@
+package persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Represents a reader that reads solar systems from a newline-delimited JSON file written by
+// NdjsonWriter. With a pool, lines are decoded in parallel on the pool; blank lines and header
+// lines are skipped.
+public class NdjsonReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private String source;
+    private ForkJoinPool pool;
+
+    // EFFECTS: constructs reader to read from source file one line at a time
+    public NdjsonReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: constructs reader to read from source file that decodes lines in parallel on pool
+    public NdjsonReader(String source, ForkJoinPool pool) {
+        this.source = source;
+        this.pool = pool;
+    }
+
+    // EFFECTS: reads galaxy from file and returns it, named by its header line or, for a file
+    //          written without one, after the galaxy of its first line, with its solar systems
+    //          added in file order, logging one summary event instead of an event for every body;
+    //          throws IOException if an error occurs reading data from file, a line is not valid,
+    //          the header is of a newer version or the file has nothing to name the galaxy after
+    public Galaxy read() throws IOException {
+        try (BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad()) {
+            Galaxy galaxy = new Galaxy(readGalaxyName());
+            List<SolarSystem> solarSystems = process(lines -> lines
+                    .map(line -> bulkLoad.within(() -> parseLine(line)))
+                    .collect(Collectors.toList()));
+            for (SolarSystem s : solarSystems) {
+                addSolarSystem(galaxy, s);
+            }
+            bulkLoad.setGalaxy(galaxy);
+            return galaxy;
+        }
+    }
+
+    // EFFECTS: decodes every line and passes its solar system to action, returning the number of
+    //          lines; with a pool, action is called from several threads at once and in no
+    //          particular order; throws IOException if the file cannot be read or a line is not valid
+    public long forEach(Consumer<SolarSystem> action) throws IOException {
+        try (BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad()) {
+            return process(lines -> lines.mapToLong(line -> {
+                action.accept(bulkLoad.within(() -> parseLine(line)));
+                return 1;
+            }).sum());
+        }
+    }
+
+    // EFFECTS: decodes the complete lines from byte offset to the end of the file, passing each
+    //          solar system to action in file order, and returns the offset just past the last
+    //          complete line; a last line without its newline is left for the next call, so the
+    //          file can be followed as it grows by calling tail with the offset it returned;
+    //          throws IOException if the file cannot be read or a line is not valid
+    public long tail(long offset, Consumer<SolarSystem> action) throws IOException {
+        BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad();
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ);
+             InputStream in = Channels.newInputStream(channel.position(offset))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for (int n = in.read(buffer); n > 0; n = in.read(buffer)) {
+                int start = 0;
+                for (int i = 0; i < n; i++) {
+                    if (buffer[i] == '\n') {
+                        line.write(buffer, start, i - start);
+                        offset += line.size() + 1;
+                        decodeLine(line.toString(StandardCharsets.UTF_8), action);
+                        line.reset();
+                        start = i + 1;
+                    }
+                }
+                line.write(buffer, start, n - start);
+            }
+            return offset;
+        } finally {
+            bulkLoad.close();
+        }
+    }
+
+    // EFFECTS: runs task over the lines of the file, in parallel on the pool if there is one,
+    //          and returns its result; throws IOException if the file cannot be read or a line is not valid
+    private <T> T process(Function<Stream<String>, T> task) throws IOException {
+        try (Stream<String> lines = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
+            Stream<String> records = lines.filter(line -> !line.isBlank() && !isHeader(line));
+            if (pool == null) {
+                return task.apply(records);
+            }
+            return pool.submit(() -> task.apply(records.parallel())).get();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading " + source, e);
+        }
+    }
+
+    // EFFECTS: decodes a line and passes its solar system to action, unless the line is blank
+    //          or a header
+    private static void decodeLine(String line, Consumer<SolarSystem> action) throws IOException {
+        if (!line.isBlank() && !isHeader(line)) {
+            action.accept(JsonStreamReader.parseSolarSystem(line));
+        }
+    }
+
+    // EFFECTS: decodes the solar system on a line; throws UncheckedIOException if it is not valid
+    private static SolarSystem parseLine(String line) {
+        try {
+            return JsonStreamReader.parseSolarSystem(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // EFFECTS: returns true if line is a header line rather than a solar system record;
+    //          only its first member is read
+    static boolean isHeader(String line) {
+        try {
+            JsonTokenReader json = new JsonTokenReader(line);
+            json.beginObject();
+            return json.hasNext() && json.nextName().equals("format");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // EFFECTS: returns the name in the header line, or the galaxy member of the first record in
+    //          a file written without a header; throws IOException if there is neither, or the
+    //          header is not one this reader understands
+    private String readGalaxyName() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            while (line != null && line.isBlank()) {
+                line = reader.readLine();
+            }
+            if (line == null) {
+                throw new IOException(source + " has no galaxy header or solar systems");
+            }
+            return isHeader(line) ? readHeader(line) : readGalaxyMember(line);
+        }
+    }
+
+    // EFFECTS: returns the galaxy name in a header line; throws IOException if the header is not
+    //          valid or is of a format or version this reader does not understand
+    @SuppressWarnings({"checkstyle:MethodLength", "checkstyle:SuppressWarnings"})
+    private static String readHeader(String line) throws IOException {
+        String format = null;
+        double version = 0;
+        String name = null;
+        JsonTokenReader json = new JsonTokenReader(line);
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "format":
+                    format = json.nextString();
+                    break;
+                case "version":
+                    version = json.nextDouble();
+                    break;
+                case "name":
+                    name = json.nextString();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        json.endDocument();
+        if (!NdjsonWriter.FORMAT.equals(format) || version < 1 || version > NdjsonWriter.VERSION || name == null) {
+            throw new IOException("Unsupported galaxy header: " + line);
+        }
+        return name;
+    }
+
+    // EFFECTS: returns the galaxy member of a solar system record;
+    //          throws IOException if it has none
+    private static String readGalaxyMember(String line) throws IOException {
+        JsonTokenReader json = new JsonTokenReader(line);
+        json.beginObject();
+        while (json.hasNext()) {
+            if (json.nextName().equals("galaxy")) {
+                return json.nextString();
+            }
+            json.skipValue();
+        }
+        throw new IOException("Solar system record has no galaxy");
+    }
+
+    // MODIFIES: galaxy
+    // EFFECTS: adds solar system to galaxy
+    private void addSolarSystem(Galaxy galaxy, SolarSystem solarSystem) {
+        try {
+            galaxy.addSolarSystem(solarSystem);
+        } catch (NameAlreadyUsedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
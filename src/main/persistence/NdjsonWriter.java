@@ -0,0 +1,89 @@
+package persistence;
+
+import model.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Represents a writer that writes galaxy as newline-delimited JSON: one line per solar system,
+// each a self-contained record in the same schema as a solar system written by JsonWriter with
+// a galaxy member naming its galaxy added first. Lines can be processed one at a time, split
+// across workers, or read by NdjsonReader while the file is still being appended to.
+// A whole galaxy starts with a header line naming the galaxy and the format version,
+//   {"format":"galaxy-ndjson","version":1,"name":"<galaxy name>"}
+// so a galaxy with no solar systems can be read back, and its solar systems are written in order
+// of name, so two files can be compared by GalaxyDiff.
+public class NdjsonWriter {
+    static final String FORMAT = "galaxy-ndjson";
+    static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private String destination;
+    private boolean append;
+    private Writer writer;
+    private JsonTokenWriter json;
+
+    // EFFECTS: constructs writer to write to destination file, adding to the end of an existing
+    //          file if append is true and replacing it otherwise
+    public NdjsonWriter(String destination, boolean append) {
+        this.destination = destination;
+        this.append = append;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws IOException if destination file cannot be opened for writing
+    public void open() throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(destination), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE),
+                BUFFER_SIZE);
+        json = new JsonTokenWriter(writer, false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the header line and then a line for every solar system in galaxy in order of
+    //          name; throws IOException if the file cannot be written
+    public void write(Galaxy galaxy) throws IOException {
+        json.beginObject().name("format").value(FORMAT).name("version").value(VERSION)
+                .name("name").value(galaxy.getName()).endObject();
+        writer.write('\n');
+        Map<String, SolarSystem> solarSystems = galaxy.getSolarSystems();
+        List<String> names = new ArrayList<>(solarSystems.keySet());
+        Collections.sort(names);
+        for (String name : names) {
+            writeLine(galaxy.getName(), solarSystems.get(name));
+        }
+
+        EventLog.getInstance().logEvent(EventTemplate.GALAXY_SAVED, null, galaxy.getName());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the line for one solar system of the galaxy with the given name and flushes it,
+    //          so a reader tailing the file sees it; throws IOException if the file cannot be written
+    public void append(String galaxyName, SolarSystem solarSystem) throws IOException {
+        writeLine(galaxyName, solarSystem);
+        writer.flush();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer; throws IOException if the remaining data cannot be written
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the line for one solar system
+    private void writeLine(String galaxyName, SolarSystem solarSystem) throws IOException {
+        JsonStreamWriter.writeSolarSystem(json, solarSystem, galaxyName);
+        writer.write('\n');
+    }
+}
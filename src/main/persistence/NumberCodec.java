@@ -0,0 +1,179 @@
+package persistence;
+
+// Represents the conversion of doubles to and from the text of JSON numbers.
+// A number with at most 15 significant digits and a decimal exponent of at most 22 is parsed
+// straight from the characters: its digits and its power of ten are both exact doubles, so one
+// multiplication or division gives the correctly rounded result without building a String or
+// BigDecimal. Formatting looks for the fewest decimal places that read back as the same double
+// in the same way. Numbers outside those ranges, and numbers below 0.001 that are shorter with
+// an exponent, fall back to Double.parseDouble and Double.toString, which are also exact.
+final class NumberCodec {
+    static final int MAX_CHARS = 32;   // enough for any number format writes
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final int MAX_EXACT_EXPONENT = 22;
+    private static final int MAX_EXPONENT_DIGITS = 4;
+    private static final double MAX_EXACT_INTEGER = 9007199254740992.0;   // 2^53
+    private static final double MIN_PLAIN = 1e-3;   // smaller numbers are shorter with an exponent
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private NumberCodec() {
+    }
+
+    // EFFECTS: returns the double nearest to the number held in text from start to end;
+    //          throws NumberFormatException if it is not a number
+    @SuppressWarnings({"checkstyle:MethodLength", "checkstyle:SuppressWarnings"})
+    static double parseDouble(CharSequence text, int start, int end) {
+        int i = start;
+        boolean negative = i < end && text.charAt(i) == '-';
+        if (negative) {
+            i++;
+        }
+        long digits = 0;
+        int digitCount = 0;       // significant digits, not counting leading zeros
+        int exponent = 0;
+        int firstDigit = i;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+            } else if (c < '0' || c > '9') {
+                break;
+            }
+            if (digits != 0 || c != '0') {
+                digitCount++;
+                digits = digitCount <= MAX_EXACT_DIGITS ? digits * 10 + (c - '0') : digits;
+            }
+            exponent -= fraction ? 1 : 0;
+        }
+        boolean hasDigits = i - firstDigit > (fraction ? 1 : 0);
+        if (hasDigits && i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            int parsed = parseExponent(text, i + 1, end);
+            if (parsed != Integer.MIN_VALUE) {
+                exponent += parsed;
+                i = end;
+            }
+        }
+        if (i != end || !hasDigits || digitCount > MAX_EXACT_DIGITS
+                || exponent < -MAX_EXACT_EXPONENT || exponent > MAX_EXACT_EXPONENT) {
+            return Double.parseDouble(text.subSequence(start, end).toString());
+        }
+        double value = exponent < 0 ? digits / POWERS_OF_TEN[-exponent] : digits * POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    // EFFECTS: returns true if text from start to end matches the JSON number grammar: an
+    //          optional minus, an integer part without leading zeros, an optional fraction
+    //          and an optional exponent, each with at least one digit
+    static boolean isJsonNumber(CharSequence text, int start, int end) {
+        int i = start < end && text.charAt(start) == '-' ? start + 1 : start;
+        if (i < end && text.charAt(i) == '0') {
+            i++;
+        } else {
+            i = skipDigits(text, i, end);
+        }
+        if (i >= 0 && i < end && text.charAt(i) == '.') {
+            i = skipDigits(text, i + 1, end);
+        }
+        if (i >= 0 && i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            i = i < end && (text.charAt(i) == '-' || text.charAt(i) == '+') ? i + 1 : i;
+            i = skipDigits(text, i, end);
+        }
+        return i == end;
+    }
+
+    // EFFECTS: returns the index after the digits in text from start to end, or -1 if there
+    //          are none
+    private static int skipDigits(CharSequence text, int start, int end) {
+        int i = start;
+        while (i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+            i++;
+        }
+        return i > start ? i : -1;
+    }
+
+    // EFFECTS: returns the exponent held in text from start to end, or Integer.MIN_VALUE if it
+    //          is not a short signed integer
+    private static int parseExponent(CharSequence text, int start, int end) {
+        int i = start;
+        boolean negative = i < end && text.charAt(i) == '-';
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            i++;
+        }
+        if (i == end || end - i > MAX_EXPONENT_DIGITS) {
+            return Integer.MIN_VALUE;
+        }
+        int exponent = 0;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return Integer.MIN_VALUE;
+            }
+            exponent = exponent * 10 + (c - '0');
+        }
+        return negative ? -exponent : exponent;
+    }
+
+    // REQUIRES: value is finite and out has room for MAX_CHARS characters
+    // MODIFIES: out
+    // EFFECTS: writes the shortest number that parses back to value into out and returns its
+    //          length; whole numbers are written without a fractional part
+    static int format(double value, char[] out) {
+        double magnitude = Math.abs(value);
+        int length = Double.doubleToRawLongBits(value) < 0 ? 1 : 0;
+        out[0] = '-';
+        if (magnitude < MIN_PLAIN && magnitude != 0) {
+            return formatFallback(value, out);
+        }
+        for (int places = 0; places < POWERS_OF_TEN.length; places++) {
+            double scaled = magnitude * POWERS_OF_TEN[places];
+            if (scaled >= MAX_EXACT_INTEGER) {
+                break;
+            }
+            long digits = Math.round(scaled);
+            if (digits / POWERS_OF_TEN[places] == magnitude) {
+                return writeDecimal(digits, places, out, length);
+            }
+        }
+        return formatFallback(value, out);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes value as Double.toString does into out and returns its length
+    private static int formatFallback(double value, char[] out) {
+        String text = Double.toString(value);
+        text.getChars(0, text.length(), out, 0);
+        return text.length();
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes digits with a decimal point places digits from the right into out from
+    //          start, adding leading zeros as needed, and returns the end of the number
+    private static int writeDecimal(long digits, int places, char[] out, int start) {
+        int length = Math.max(digitCount(digits), places + 1) + (places > 0 ? 1 : 0);
+        int end = start + length;
+        int i = end;
+        for (int written = 0; i > start; written++) {
+            if (places > 0 && written == places) {
+                out[--i] = '.';
+            }
+            out[--i] = (char) ('0' + digits % 10);
+            digits /= 10;
+        }
+        return end;
+    }
+
+    // EFFECTS: returns the number of decimal digits in digits, which is not negative
+    private static int digitCount(long digits) {
+        int count = 1;
+        while (digits >= 10) {
+            digits /= 10;
+            count++;
+        }
+        return count;
+    }
+}
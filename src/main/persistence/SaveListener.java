@@ -0,0 +1,19 @@
+package persistence;
+
+import model.Galaxy;
+
+import java.io.IOException;
+
+// Represents an observer of the saves made by a SaveService; every method is called on the
+// thread that owns the model
+public interface SaveListener {
+    // EFFECTS: called just after galaxy has been copied to be saved; changes made to galaxy
+    //          from now on are not part of this save
+    void snapshotTaken(Galaxy galaxy);
+
+    // EFFECTS: called once the copy of galaxy taken for this save is safely on disk
+    void saveCompleted(Galaxy galaxy);
+
+    // EFFECTS: called if the copy of galaxy could not be saved; the previous save is left in place
+    void saveFailed(Galaxy galaxy, IOException e);
+}
@@ -0,0 +1,148 @@
+package persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Represents a service that saves galaxies to a JSON file on a background thread, so the
+// thread that owns the model (such as the Swing event dispatch thread) never waits for the disk.
+// When the worker is ready, the galaxy is copied on the model thread and the copy is written to
+// a temporary file that is forced to disk and then replaces the destination in one step.
+// Requests made while a save is in progress are coalesced into a single save of the latest galaxy.
+public class SaveService {
+    private final Path destination;
+    private final Executor modelExecutor;
+    private final SaveListener listener;
+    private final ExecutorService worker;
+    private Galaxy requested;     // galaxy waiting to be saved, or null
+    private boolean saving;       // the worker has a save queued or in progress
+
+    // EFFECTS: constructs a service saving to destination; modelExecutor runs tasks on the thread
+    //          that owns the model, where galaxies are copied and listener is told about each save
+    public SaveService(String destination, Executor modelExecutor, SaveListener listener) {
+        this.destination = Paths.get(destination);
+        this.modelExecutor = modelExecutor;
+        this.listener = listener;
+        worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "galaxy-saver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: asks for galaxy to be saved and returns at once; if a save has already been
+    //          requested but not started, only the latest galaxy is saved
+    public synchronized void requestSave(Galaxy galaxy) {
+        requested = galaxy;
+        if (!saving) {
+            saving = true;
+            worker.execute(this::saveRequested);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops accepting requests; a save already requested still runs in the background
+    public void close() {
+        worker.shutdown();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the requested galaxies until no request is waiting; if a save ends with an
+    //          unexpected error, the next request still starts a new save
+    private void saveRequested() {
+        Galaxy galaxy = takeRequest();
+        try {
+            while (galaxy != null) {
+                save(galaxy);
+                galaxy = takeRequest();
+            }
+        } finally {
+            if (galaxy != null) {
+                synchronized (this) {
+                    saving = false;
+                }
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the galaxy waiting to be saved and forgets it, or, if there is none,
+    //          records that the worker has finished and returns null
+    private synchronized Galaxy takeRequest() {
+        Galaxy galaxy = requested;
+        requested = null;
+        if (galaxy == null) {
+            saving = false;
+        }
+        return galaxy;
+    }
+
+    // EFFECTS: copies galaxy on the model thread, writes the copy and reports the result there
+    private void save(Galaxy galaxy) {
+        try {
+            Galaxy copy = CompletableFuture.supplyAsync(() -> snapshot(galaxy), modelExecutor).get();
+            write(copy);
+            modelExecutor.execute(() -> listener.saveCompleted(galaxy));
+        } catch (IOException e) {
+            modelExecutor.execute(() -> listener.saveFailed(galaxy, e));
+        } catch (ExecutionException e) {
+            modelExecutor.execute(() -> listener.saveFailed(galaxy, new IOException(e.getCause())));
+        } catch (RuntimeException e) {
+            modelExecutor.execute(() -> listener.saveFailed(galaxy, new IOException(e)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // EFFECTS: writes galaxy to a temporary file, forces it to disk and moves it over the destination,
+    //          so saveCompleted is only reported once the new file would survive a crash
+    private void write(Galaxy galaxy) throws IOException {
+        Path temporary = destination.resolveSibling(destination.getFileName() + ".tmp");
+        JsonStreamWriter writer = new JsonStreamWriter(temporary.toString(), true);
+        writer.open();
+        try {
+            writer.write(galaxy);
+        } finally {
+            writer.close();
+        }
+        FileSync.replace(temporary, destination);
+    }
+
+    // EFFECTS: returns a copy of galaxy that later changes to galaxy do not affect,
+    //          and tells the listener the copy has been taken; runs on the model thread
+    private Galaxy snapshot(Galaxy galaxy) {
+        Galaxy copy;
+        BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad();
+        try {
+            copy = new Galaxy(galaxy.getName());
+            for (SolarSystem s : galaxy.getSolarSystems().values()) {
+                copy.addSolarSystem(copySolarSystem(s));
+            }
+        } catch (NameAlreadyUsedException e) {
+            throw new RuntimeException(e);
+        } finally {
+            bulkLoad.close();
+        }
+        listener.snapshotTaken(galaxy);
+        return copy;
+    }
+
+    // EFFECTS: returns a copy of solar system, its central body and its planets
+    private static SolarSystem copySolarSystem(SolarSystem solarSystem) {
+        SolarSystem copy = new SolarSystem(solarSystem.getName(), CentralBodyCodecs.copy(solarSystem.getCentralBody()));
+        for (Planet p : solarSystem.getPlanets().values()) {
+            copy.addPlanet(new Planet(p.getName(), p.getRadius(), p.getMass(), p.getOrbitSize(), p.isMoon(),
+                    p.isRocky()));
+        }
+        return copy;
+    }
+}
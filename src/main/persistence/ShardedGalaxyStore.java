@@ -0,0 +1,228 @@
+package persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+// Represents a galaxy stored in a directory as a manifest and a number of shard files.
+// Each solar system is kept in the shard chosen by the hash of its name, so one shard,
+// or a few named solar systems, can be loaded without reading the rest of the galaxy.
+// The manifest (manifest.json) holds the galaxy's name, the generation of its shards, the shard
+// count and the solar system count of each shard; each shard (generation-G/shard-NNN.json) is a
+// JSON array of solar systems in the same schema as JsonWriter.
+// Every save writes its shards into a new generation directory and forces them to disk before
+// the manifest is switched to that generation in one step, so a crash during a save leaves the
+// previous generation whole; older generations are deleted once the new manifest is in place.
+public class ShardedGalaxyStore {
+    private static final String MANIFEST = "manifest.json";
+    private static final String GENERATION = "generation";
+    private static final String GENERATION_PREFIX = "generation-";
+    private final Path directory;
+
+    // EFFECTS: constructs a store keeping its files in directory
+    public ShardedGalaxyStore(String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    // EFFECTS: returns the shard a solar system with the given name is kept in
+    public static int shardOf(String solarSystemName, int shardCount) {
+        return Math.floorMod(solarSystemName.hashCode(), shardCount);
+    }
+
+    // REQUIRES: shardCount must be positive
+    // MODIFIES: this
+    // EFFECTS: writes galaxy to a new generation of shardCount shards and then replaces the
+    //          manifest in one step, deleting earlier generations afterwards;
+    //          throws IOException if the files cannot be written
+    public void save(Galaxy galaxy, int shardCount) throws IOException {
+        Files.createDirectories(directory);
+        long generation = Files.exists(directory.resolve(MANIFEST)) ? generationOf(readManifest()) + 1 : 1;
+        Path shardDirectory = Files.createDirectories(directory.resolve(GENERATION_PREFIX + generation));
+        List<List<SolarSystem>> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (SolarSystem s : galaxy.getSolarSystems().values()) {
+            shards.get(shardOf(s.getName(), shardCount)).add(s);
+        }
+        JSONArray counts = new JSONArray();
+        for (int i = 0; i < shardCount; i++) {
+            writeShard(shardPath(shardDirectory, i), shards.get(i));
+            counts.put(shards.get(i).size());
+        }
+        FileSync.forceDirectory(shardDirectory);
+        writeManifest(galaxy.getName(), generation, shardCount, counts);
+        deleteOtherGenerations(generation);
+
+        EventLog.getInstance().logEvent(EventTemplate.GALAXY_SAVED, null, galaxy.getName());
+    }
+
+    // EFFECTS: reads the whole galaxy; throws IOException if the files cannot be read
+    public Galaxy load() throws IOException {
+        return load(shard -> true, name -> true);
+    }
+
+    // EFFECTS: reads a galaxy holding only the solar systems in the given shard;
+    //          throws IOException if the files cannot be read
+    public Galaxy loadShard(int shard) throws IOException {
+        return load(s -> s == shard, name -> true);
+    }
+
+    // EFFECTS: reads a galaxy holding only the named solar systems, reading only the shards that
+    //          can hold them; names not in the galaxy are ignored;
+    //          throws IOException if the files cannot be read
+    public Galaxy loadSolarSystems(Collection<String> solarSystemNames) throws IOException {
+        Set<String> wanted = new HashSet<>(solarSystemNames);
+        int shardCount = readManifest().getInt("shardCount");
+        Set<Integer> shards = new HashSet<>();
+        for (String name : wanted) {
+            shards.add(shardOf(name, shardCount));
+        }
+        return load(shards::contains, wanted::contains);
+    }
+
+    // EFFECTS: returns the number of shards in the store; throws IOException if there is no manifest
+    public int getShardCount() throws IOException {
+        return readManifest().getInt("shardCount");
+    }
+
+    // EFFECTS: reads a galaxy holding the solar systems that wanted accepts from the shards
+    //          that shards accepts, logging one summary event instead of an event for every body
+    private Galaxy load(Predicate<Integer> shards, Predicate<String> wanted) throws IOException {
+        BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad();
+        try {
+            JSONObject manifest = readManifest();
+            Path shardDirectory = shardDirectory(manifest);
+            JSONArray counts = manifest.getJSONArray("shardSolarSystemCounts");
+            Galaxy galaxy = new Galaxy(manifest.getString("name"));
+            for (int i = 0; i < manifest.getInt("shardCount"); i++) {
+                if (shards.test(i)) {
+                    readShard(shardPath(shardDirectory, i), counts.getInt(i), galaxy, wanted);
+                }
+            }
+            bulkLoad.setGalaxy(galaxy);
+            return galaxy;
+        } catch (JSONException e) {
+            throw new IOException("Invalid manifest: " + e.getMessage());
+        } finally {
+            bulkLoad.close();
+        }
+    }
+
+    // EFFECTS: writes the manifest, forcing it to disk and replacing it in one step
+    private void writeManifest(String name, long generation, int shardCount, JSONArray counts) throws IOException {
+        JSONObject manifest = new JSONObject();
+        manifest.put("name", name);
+        manifest.put(GENERATION, generation);
+        manifest.put("shardCount", shardCount);
+        manifest.put("shardSolarSystemCounts", counts);
+        Path temporary = directory.resolve(MANIFEST + ".tmp");
+        Files.writeString(temporary, manifest.toString(), StandardCharsets.UTF_8);
+        FileSync.replace(temporary, directory.resolve(MANIFEST));
+    }
+
+    // EFFECTS: reads the manifest; throws IOException if it cannot be read or is not valid
+    private JSONObject readManifest() throws IOException {
+        try {
+            return new JSONObject(Files.readString(directory.resolve(MANIFEST), StandardCharsets.UTF_8));
+        } catch (JSONException e) {
+            throw new IOException("Invalid manifest: " + e.getMessage());
+        }
+    }
+
+    // EFFECTS: returns the directory holding the shards of the generation named in manifest;
+    //          throws IOException if the manifest names no generation
+    private Path shardDirectory(JSONObject manifest) throws IOException {
+        return directory.resolve(GENERATION_PREFIX + generationOf(manifest));
+    }
+
+    // EFFECTS: returns the generation named in manifest; throws IOException if it names none
+    private static long generationOf(JSONObject manifest) throws IOException {
+        try {
+            return manifest.getLong(GENERATION);
+        } catch (JSONException e) {
+            throw new IOException("Invalid manifest: " + e.getMessage());
+        }
+    }
+
+    // MODIFIES: galaxy
+    // EFFECTS: parses a shard and adds the solar systems in it that wanted accepts to galaxy;
+    //          throws IOException if the shard does not hold the expected number of solar systems
+    private void readShard(Path shard, int expected, Galaxy galaxy, Predicate<String> wanted) throws IOException {
+        int count = 0;
+        try (Reader reader = Files.newBufferedReader(shard, StandardCharsets.UTF_8)) {
+            JsonTokenReader json = new JsonTokenReader(reader);
+            json.beginArray();
+            for (; json.hasNext(); count++) {
+                SolarSystem solarSystem = JsonStreamReader.parseSolarSystem(json, wanted);
+                if (solarSystem != null) {
+                    galaxy.addSolarSystem(solarSystem);
+                }
+            }
+            json.endArray();
+            json.endDocument();
+        } catch (NameAlreadyUsedException e) {
+            throw new RuntimeException(e);
+        }
+        if (count != expected) {
+            throw new IOException(shard.getFileName() + " holds " + count + " solar systems, not " + expected);
+        }
+    }
+
+    // EFFECTS: writes the solar systems of one shard to its file and forces it to disk
+    private void writeShard(Path shard, List<SolarSystem> solarSystems) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(shard, StandardCharsets.UTF_8)) {
+            JsonTokenWriter json = new JsonTokenWriter(writer, false);
+            json.beginArray();
+            for (SolarSystem s : solarSystems) {
+                JsonStreamWriter.writeSolarSystem(json, s);
+            }
+            json.endArray();
+        }
+        FileSync.force(shard);
+    }
+
+    // EFFECTS: deletes the shards of every generation other than the given one
+    private void deleteOtherGenerations(long generation) throws IOException {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (name.startsWith(GENERATION_PREFIX) && !name.equals(GENERATION_PREFIX + generation)) {
+                    deleteShards(entry);
+                    Files.deleteIfExists(entry);
+                }
+            }
+        }
+    }
+
+    // EFFECTS: deletes the shard files in shardDirectory
+    private void deleteShards(Path shardDirectory) throws IOException {
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(shardDirectory, "shard-*.json")) {
+            for (Path shard : shards) {
+                Files.delete(shard);
+            }
+        }
+    }
+
+    // EFFECTS: returns the path of the shard with the given number in shardDirectory
+    private static Path shardPath(Path shardDirectory, int shard) {
+        return shardDirectory.resolve(String.format("shard-%03d.json", shard));
+    }
+}
@@ -0,0 +1,99 @@
+package persistence;
+
+import model.*;
+
+// Represents the codecs for the kinds of central body in the model
+enum StandardCentralBodyCodec implements CentralBodyCodec {
+    BLACK_HOLE((byte) 1, "Black Hole") {
+        @Override
+        public CentralBody decode(CentralBodyFields fields) {
+            return new BlackHole(fields.name, getType(), fields.mass, fields.radius);
+        }
+    },
+    NEUTRON_STAR((byte) 2, "Neutron Star") {
+        @Override
+        public CentralBody decode(CentralBodyFields fields) {
+            return new NeutronStar(fields.name, getType(), fields.mass, fields.radius);
+        }
+    },
+    WHITE_DWARF((byte) 3, "White Dwarf") {
+        @Override
+        public CentralBody decode(CentralBodyFields fields) {
+            return new WhiteDwarf(fields.name, getType(), fields.mass, fields.radius);
+        }
+    },
+    GIANT_STAR((byte) 4, "Giant Star") {
+        @Override
+        public boolean hasLuminosity() {
+            return true;
+        }
+
+        @Override
+        public void encode(CentralBody body, CentralBodyFields fields) {
+            super.encode(body, fields);
+            fields.luminosity = ((GiantStar) body).getLuminosity();
+        }
+
+        @Override
+        public CentralBody decode(CentralBodyFields fields) {
+            return new GiantStar(fields.name, getType(), fields.mass, fields.radius, fields.luminosity);
+        }
+    },
+    BINARY((byte) 5, "Binary") {
+        @Override
+        public int getComponentCount() {
+            return 2;
+        }
+
+        @Override
+        public void encode(CentralBody body, CentralBodyFields fields) {
+            super.encode(body, fields);
+            Binary binary = (Binary) body;
+            fields.components = new CentralBodyFields[] {
+                    CentralBodyCodecs.encode(binary.getCentralBody1()),
+                    CentralBodyCodecs.encode(binary.getCentralBody2())};
+        }
+
+        // the mass and radius of a binary are worked out from its components
+        @Override
+        public CentralBody decode(CentralBodyFields fields) {
+            return new Binary(fields.name, CentralBodyCodecs.decode(fields.components[0]),
+                    CentralBodyCodecs.decode(fields.components[1]));
+        }
+    };
+
+    private final byte tag;
+    private final String type;
+
+    StandardCentralBodyCodec(byte tag, String type) {
+        this.tag = tag;
+        this.type = type;
+    }
+
+    @Override
+    public byte getTag() {
+        return tag;
+    }
+
+    @Override
+    public String getType() {
+        return type;
+    }
+
+    @Override
+    public boolean hasLuminosity() {
+        return false;
+    }
+
+    @Override
+    public int getComponentCount() {
+        return 0;
+    }
+
+    @Override
+    public void encode(CentralBody body, CentralBodyFields fields) {
+        fields.name = body.getName();
+        fields.mass = body.getMass();
+        fields.radius = body.getRadius();
+    }
+}
@@ -6,8 +6,13 @@ import exceptions.NameAlreadyUsedException;
 import exceptions.NegativeNumberException;
 import model.*;
 import model.Event;
+import persistence.EventLogSpiller;
 import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.JsonStreamReader;
+import persistence.LoadProgress;
+import persistence.MutationJournal;
+import persistence.SaveListener;
+import persistence.SaveService;
 
 import javax.swing.*;
 import javax.swing.event.ListSelectionEvent;
@@ -18,22 +23,40 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import static java.lang.Double.parseDouble;
 
 // Galaxy Builder GUI application
 public class GalaxyBuilderGUI extends JFrame implements ListSelectionListener, ActionListener {
     private static final String JSON_STORE = "./data/galaxy.json";
+    private static final String JOURNAL_STORE = "./data/galaxy.journal";
+    private static final long JOURNAL_COMMIT_MS = 200;
+    private static final int AUTOSAVE_MS = 30_000;
+    private static final int LOAD_PROGRESS_MAX = 1000;
+    private static final String EVENT_LOG_STORE = "./data/eventlog";
+    private static final int EVENT_LOG_TAIL = 1024;
+    private static final long EVENT_LOG_SEGMENT_BYTES = 4 * 1024 * 1024;
+    private static final int EVENT_LOG_SEGMENTS = 8;
     private static final int WIDTH = 1000;
     private static final int HEIGHT = 600;
     private Galaxy galaxy;
-    private JsonWriter jsonWriter;
+    private SaveService saveService;
+    private Timer autosaveTimer;
+    private boolean saveRequestedByUser;
+    private long journalMark;    // journal length when the galaxy being saved was copied
     private JsonReader jsonReader;
+    private EventLogSpiller eventLogSpiller;
+    private MutationJournal journal;
 
     private final JSplitPane splitPaneTop;
     private final JSplitPane splitPane;
@@ -85,6 +108,10 @@ public class GalaxyBuilderGUI extends JFrame implements ListSelectionListener, A
             @Override
             public void windowClosing(java.awt.event.WindowEvent windowEvent) {
                 printLog();
+                autosaveTimer.stop();
+                saveService.close();
+                closeJournal();
+                closeEventLog();
                 System.exit(0);
             }
         });
@@ -102,23 +129,129 @@ public class GalaxyBuilderGUI extends JFrame implements ListSelectionListener, A
         System.out.println("\n" + eventString);
     }
 
+    // MODIFIES: this
+    // EFFECT: keeps only a small tail of the event log in memory and starts
+    //         writing the full log to EVENT_LOG_STORE in the background
+    //         if the log files cannot be created, only the in-memory tail is kept
+    private void startEventLog() {
+        EventLog.getInstance().setCapacity(EVENT_LOG_TAIL);
+        eventLogSpiller = new EventLogSpiller(EVENT_LOG_STORE, EVENT_LOG_SEGMENT_BYTES, EVENT_LOG_SEGMENTS);
+        try {
+            eventLogSpiller.start();
+        } catch (IOException e) {
+            eventLogSpiller = null;
+            JOptionPane.showMessageDialog(null, "Unable to write event log to: " + EVENT_LOG_STORE);
+        }
+    }
+
+    // EFFECT: writes the rest of the event log to EVENT_LOG_STORE
+    private void closeEventLog() {
+        if (eventLogSpiller != null) {
+            try {
+                eventLogSpiller.close();
+            } catch (IOException e) {
+                System.out.println("Unable to write event log to: " + EVENT_LOG_STORE);
+            }
+        }
+    }
+
 
     // MODIFIES: this
     // EFFECT: initializes the galaxy and reader/writer
+    //         offers to restore changes that were not saved before the app last stopped
     private void init() {
-        String name;
-        name = JOptionPane.showInputDialog(null,
-                "Name your galaxy! \n (You can change this later)",
-                "Name galaxy",
-                JOptionPane.QUESTION_MESSAGE);
+        startEventLog();
+        saveService = new SaveService(JSON_STORE, SwingUtilities::invokeLater, new SaveReporter());
+        jsonReader = new JsonReader(JSON_STORE);
+        boolean recovered = recoverGalaxy();
+        if (!recovered) {
+            String name;
+            name = JOptionPane.showInputDialog(null,
+                    "Name your galaxy! \n (You can change this later)",
+                    "Name galaxy",
+                    JOptionPane.QUESTION_MESSAGE);
 
-        if (name != null) {
-            galaxy = new Galaxy(name);
-        } else {
-            galaxy = new Galaxy("Default");
+            if (name != null) {
+                galaxy = new Galaxy(name);
+            } else {
+                galaxy = new Galaxy("Default");
+            }
+        }
+        startJournal(recovered);
+        autosaveTimer = new Timer(AUTOSAVE_MS, e -> autosave());
+        autosaveTimer.start();
+    }
+
+    // EFFECT: saves the galaxy in the background if it has changed since it was last saved
+    private void autosave() {
+        if (galaxy.isDirty()) {
+            saveService.requestSave(galaxy);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECT: if JOURNAL_STORE holds changes that were never saved, offers to replay them
+    //         over the galaxy last saved to JSON_STORE; returns true if the galaxy was restored
+    private boolean recoverGalaxy() {
+        Path journalPath = Paths.get(JOURNAL_STORE);
+        try {
+            if (!Files.exists(journalPath) || Files.size(journalPath) == 0) {
+                return false;
+            }
+            int choice = JOptionPane.showConfirmDialog(null, "Restore the changes that were not saved?",
+                    "Restore galaxy", JOptionPane.YES_NO_OPTION);
+            if (choice != JOptionPane.YES_OPTION) {
+                return false;
+            }
+            galaxy = Files.exists(Paths.get(JSON_STORE)) ? jsonReader.read() : new Galaxy("Default");
+            MutationJournal.replay(JOURNAL_STORE, galaxy);
+            return true;
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(null, "Unable to restore from: " + JOURNAL_STORE);
+            return false;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECT: starts recording every change to the galaxy in JOURNAL_STORE; unless the galaxy
+    //         was just restored from it, the journal starts again from the current galaxy
+    //         if the journal cannot be opened, changes are only kept until the app stops
+    private void startJournal(boolean recovered) {
+        journal = new MutationJournal(JOURNAL_STORE, JOURNAL_COMMIT_MS);
+        try {
+            journal.open();
+            if (!recovered) {
+                journal.reset(galaxy.getName());
+            }
+            galaxy.setListener(journal);
+        } catch (IOException e) {
+            journal = null;
+            JOptionPane.showMessageDialog(null, "Unable to write journal to: " + JOURNAL_STORE);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECT: empties the journal once the galaxy it records matches JSON_STORE
+    private void checkpointJournal() {
+        if (journal != null) {
+            try {
+                galaxy.setListener(journal);
+                journal.checkpoint();
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(null, "Unable to write journal to: " + JOURNAL_STORE);
+            }
+        }
+    }
+
+    // EFFECT: writes the remaining journal records to JOURNAL_STORE
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.out.println("Unable to write journal to: " + JOURNAL_STORE);
+            }
         }
-        jsonWriter = new JsonWriter(JSON_STORE);
-        jsonReader = new JsonReader(JSON_STORE);
     }
 
 
@@ -654,20 +787,62 @@ public class GalaxyBuilderGUI extends JFrame implements ListSelectionListener, A
             super("Save");
         }
 
-        // EFFECT: save the current galaxy and all of its contents to JSON_STORE
-        //         if file cannot be found, fails to save data
+        // EFFECT: save the current galaxy and all of its contents to JSON_STORE in the background
+        //         the user is told when the save has finished, or if it fails
         @Override
         public void actionPerformed(ActionEvent evt) {
-            try {
-                jsonWriter.open();
-                jsonWriter.write(galaxy);
-                jsonWriter.close();
-                JOptionPane.showMessageDialog(null, "Saved " + galaxy.getName() + " to " + JSON_STORE);
+            saveRequestedByUser = true;
+            saveService.requestSave(galaxy);
+        }
+    }
+
+    /**
+     * Reports the progress of background saves on the event dispatch thread
+     */
+    private class SaveReporter implements SaveListener {
+
+        // MODIFIES: GalaxyBuilderGUI.this
+        // EFFECT: marks the galaxy as saved and remembers how much of the journal the save covers
+        @Override
+        public void snapshotTaken(Galaxy saved) {
+            saved.clearDirty();
+            journalMark = -1;
+            if (journal != null && saved == galaxy) {
+                try {
+                    journalMark = journal.mark();
+                } catch (IOException e) {
+                    journalMark = -1;
+                }
+            }
+        }
 
-            } catch (FileNotFoundException e) {
-                JOptionPane.showMessageDialog(null, "Unable to write to file: " + JSON_STORE);
+        // MODIFIES: GalaxyBuilderGUI.this
+        // EFFECT: drops the journal records the save covers and,
+        //         if the user asked for the save, tells them it has finished
+        @Override
+        public void saveCompleted(Galaxy saved) {
+            if (journal != null && saved == galaxy && journalMark >= 0) {
+                try {
+                    journal.checkpoint(journalMark);
+                } catch (IOException e) {
+                    JOptionPane.showMessageDialog(null, "Unable to write journal to: " + JOURNAL_STORE);
+                }
+            }
+            if (saveRequestedByUser) {
+                saveRequestedByUser = false;
+                JOptionPane.showMessageDialog(null, "Saved " + saved.getName() + " to " + JSON_STORE);
             }
         }
+
+        // MODIFIES: GalaxyBuilderGUI.this
+        // EFFECT: marks the galaxy as changed again, since the save that cleared its changes
+        //         did not reach the disk, so autosave retries it; tells the user it could not be saved
+        @Override
+        public void saveFailed(Galaxy saved, IOException e) {
+            saved.markDirty();
+            saveRequestedByUser = false;
+            JOptionPane.showMessageDialog(null, "Unable to write to file: " + JSON_STORE);
+        }
     }
 
     /**
@@ -681,14 +856,72 @@ public class GalaxyBuilderGUI extends JFrame implements ListSelectionListener, A
         }
 
 
-        // EFFECT: Loads a saved galaxy from JSON store
-        //         if file location cannot be found, fails to load data
+        // EFFECT: loads a saved galaxy from JSON store on a background thread,
+        //         showing how far the load has got and letting the user cancel it;
+        //         the action is disabled until the load finishes
         @Override
         public void actionPerformed(ActionEvent evt) {
+            setEnabled(false);
+            ProgressMonitor monitor = new ProgressMonitor(GalaxyBuilderGUI.this, "Loading " + JSON_STORE,
+                    "", 0, LOAD_PROGRESS_MAX);
+            new LoadWorker(monitor, this).execute();
+        }
+    }
+
+    /**
+     * Loads the galaxy in JSON_STORE on a background thread, reporting its progress in a
+     * progress monitor and stopping if the user cancels the monitor
+     */
+    private class LoadWorker extends SwingWorker<Galaxy, long[]> implements LoadProgress {
+        private final ProgressMonitor monitor;
+        private final Action loadAction;
+
+        LoadWorker(ProgressMonitor monitor, Action loadAction) {
+            this.monitor = monitor;
+            this.loadAction = loadAction;
+        }
+
+        // EFFECT: reads the galaxy; runs on the worker thread
+        @Override
+        protected Galaxy doInBackground() throws IOException {
+            return new JsonStreamReader(JSON_STORE).read(this);
+        }
+
+        // EFFECT: passes the progress of the load on to the event dispatch thread
+        @Override
+        public void progress(long bytesRead, long totalBytes, int solarSystemsParsed) {
+            publish(new long[]{bytesRead, totalBytes, solarSystemsParsed});
+        }
+
+        // EFFECT: shows the latest progress, and cancels the load if the user cancelled the monitor
+        @Override
+        protected void process(List<long[]> chunks) {
+            long[] latest = chunks.get(chunks.size() - 1);
+            monitor.setProgress(latest[1] == 0 ? 0 : (int) (latest[0] * LOAD_PROGRESS_MAX / latest[1]));
+            monitor.setNote(latest[2] + " solar systems, " + latest[0] / 1024 + " of " + latest[1] / 1024
+                    + " KB");
+            if (monitor.isCanceled()) {
+                cancel(false);
+            }
+        }
+
+        // MODIFIES: GalaxyBuilderGUI.this
+        // EFFECT: replaces the galaxy with the one loaded, unless the load was cancelled or failed,
+        //         and tells the user what happened
+        @Override
+        protected void done() {
+            monitor.close();
+            loadAction.setEnabled(true);
+            if (isCancelled()) {
+                JOptionPane.showMessageDialog(null, "Load cancelled");
+                return;
+            }
             try {
-                galaxy = jsonReader.read();
+                galaxy = get();
+                galaxy.clearDirty();
+                checkpointJournal();
                 JOptionPane.showMessageDialog(null, "Loaded " + galaxy.getName() + " from " + JSON_STORE);
-            } catch (IOException e) {
+            } catch (ExecutionException | InterruptedException e) {
                 JOptionPane.showMessageDialog(null, "Unable to read from file: " + JSON_STORE);
             }
             updateButtons((JComponent) splitPane.getBottomComponent());
@@ -0,0 +1,60 @@
+package ui;
+
+import model.CentralBody;
+import model.Planet;
+import model.SolarSystem;
+import persistence.GalaxyDiff;
+import persistence.GalaxyDiffListener;
+
+import java.io.IOException;
+
+// Console tool that prints the differences between two galaxies saved as newline-delimited JSON,
+// one line for each: "+" for an added solar system or planet, "-" for a removed one and "~" for
+// one whose data has changed.
+//
+// Usage: GalaxyDiffTool <older file> <newer file>
+public class GalaxyDiffTool implements GalaxyDiffListener {
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Usage: GalaxyDiffTool <older file> <newer file>");
+            return;
+        }
+        try {
+            long differences = new GalaxyDiff(args[0], args[1]).run(new GalaxyDiffTool());
+            System.out.println(differences + " differences");
+        } catch (IOException e) {
+            System.out.println("Unable to compare galaxies: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void solarSystemAdded(SolarSystem added) {
+        System.out.println("+ " + added.getName() + " (" + added.getPlanetCount() + " planets)");
+    }
+
+    @Override
+    public void solarSystemRemoved(SolarSystem removed) {
+        System.out.println("- " + removed.getName() + " (" + removed.getPlanetCount() + " planets)");
+    }
+
+    @Override
+    public void centralBodyChanged(String solarSystemName, CentralBody before, CentralBody after) {
+        System.out.println("~ " + solarSystemName + ": central body " + before.getName() + " -> " + after.getName());
+    }
+
+    @Override
+    public void planetAdded(String solarSystemName, Planet added) {
+        System.out.println("+ " + solarSystemName + " / " + added.getName());
+    }
+
+    @Override
+    public void planetRemoved(String solarSystemName, Planet removed) {
+        System.out.println("- " + solarSystemName + " / " + removed.getName());
+    }
+
+    @Override
+    public void planetChanged(String solarSystemName, Planet before, Planet after) {
+        System.out.println("~ " + solarSystemName + " / " + after.getName());
+    }
+}
@@ -0,0 +1,95 @@
+package Persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.Binary;
+import model.Galaxy;
+import model.GiantStar;
+import model.Planet;
+import model.SolarSystem;
+import org.junit.jupiter.api.Test;
+import persistence.BinarySnapshotReader;
+import persistence.BinarySnapshotWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinarySnapshotTest extends JsonTest {
+
+    @Test
+    void testWriterInvalidFile() {
+        BinarySnapshotWriter writer = new BinarySnapshotWriter("./data/noSuchDirectory/galaxy.bin");
+        assertThrows(IOException.class, () -> writer.open());
+    }
+
+    @Test
+    void testReaderNonExistentFile() {
+        BinarySnapshotReader reader = new BinarySnapshotReader("./data/noSuchFile.bin");
+        assertThrows(IOException.class, () -> reader.read());
+    }
+
+    @Test
+    void testReaderNotASnapshot() {
+        BinarySnapshotReader reader = new BinarySnapshotReader("./data/testReaderGeneralGalaxy.json");
+        assertThrows(IOException.class, () -> reader.read());
+    }
+
+    @Test
+    void testEmptyGalaxy() throws IOException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        checkGalaxy(galaxy, writeAndRead(galaxy));
+    }
+
+    @Test
+    void testGeneralGalaxy() throws IOException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        Galaxy galaxyRead = writeAndRead(galaxy);
+        checkGalaxy(galaxy, galaxyRead);
+        assertTrue(galaxy.toJson().similar(galaxyRead.toJson()));
+    }
+
+    @Test
+    void testBinaryCentralBody() throws IOException, NameAlreadyUsedException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        galaxy.addSolarSystem(buildBinarySolarSystem());
+        Galaxy galaxyRead = writeAndRead(galaxy);
+        checkGalaxy(galaxy, galaxyRead);
+        Binary binary = (Binary) galaxyRead.getSolarSystem("binary System").getCentralBody();
+        assertEquals(25, ((GiantStar) binary.getCentralBody1()).getLuminosity());
+        assertEquals("White Dwarf", binary.getCentralBody2().getCentralBodyType());
+        assertTrue(galaxy.toJson().similar(galaxyRead.toJson()));
+    }
+
+    @Test
+    void testDuplicatePlanetName() throws IOException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        SolarSystem solarSystem = galaxy.getSolarSystem("solar System1");
+        solarSystem.addPlanet(new Planet("planet1", 3, 4, 40, false, true));
+        assertTrue(solarSystem.getPlanetCount() > solarSystem.getPlanets().size());
+        Galaxy galaxyRead = writeAndRead(galaxy);
+        checkGalaxy(galaxy, galaxyRead);
+        assertEquals(40, galaxyRead.getSolarSystem("solar System1").getPlanet("planet1").getOrbitSize());
+    }
+
+    private Galaxy writeAndRead(Galaxy galaxy) throws IOException {
+        Path file = Files.createTempFile("galaxy", ".bin");
+        BinarySnapshotWriter writer = new BinarySnapshotWriter(file.toString());
+        writer.open();
+        writer.write(galaxy);
+        writer.close();
+        return new BinarySnapshotReader(file.toString()).read();
+    }
+
+    private void checkGalaxy(Galaxy expected, Galaxy galaxyRead) {
+        assertEquals(expected.getName(), galaxyRead.getName());
+        assertEquals(expected.getSolarSystemCount(), galaxyRead.getSolarSystemCount());
+        for (SolarSystem s : expected.getSolarSystems().values()) {
+            checkSolarSystem(s.getName(), s.getCentralBody(), s.getPlanets(), galaxyRead.getSolarSystem(s.getName()));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package Persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+import org.junit.jupiter.api.Test;
+import persistence.CompressedGalaxyReader;
+import persistence.CompressedGalaxyWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedGalaxyTest extends JsonTest {
+
+    @Test
+    void testWriterInvalidFile() {
+        CompressedGalaxyWriter writer = new CompressedGalaxyWriter("./data/noSuchDirectory/galaxy.galz");
+        assertThrows(IOException.class, () -> writer.open());
+    }
+
+    @Test
+    void testReaderNotCompressed() {
+        CompressedGalaxyReader reader = new CompressedGalaxyReader("./data/testReaderGeneralGalaxy.json");
+        assertThrows(IOException.class, () -> reader.read());
+    }
+
+    @Test
+    void testEmptyGalaxy() throws IOException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        checkGalaxy(galaxy, new CompressedGalaxyReader(write(galaxy).toString()).read());
+    }
+
+    @Test
+    void testGeneralGalaxy() throws IOException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        checkGalaxy(galaxy, new CompressedGalaxyReader(write(galaxy).toString()).read());
+    }
+
+    @Test
+    void testLargeGalaxyManyBlocks() throws IOException, NameAlreadyUsedException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        for (int i = 0; i < 5000; i++) {
+            SolarSystem solarSystem = new SolarSystem("system" + i, new NeutronStar("neutron star" + i, i + 1));
+            for (int j = 0; j < 5; j++) {
+                solarSystem.addPlanet(new Planet("planet" + i + "-" + j, j + 1, 2 * j + 1, 3 * j + 1, j % 2 == 0, j % 3 == 0));
+            }
+            galaxy.addSolarSystem(solarSystem);
+        }
+        Path file = write(galaxy);
+        assertTrue(Files.size(file) < galaxy.toJson().toString().length() / 4);
+
+        checkGalaxy(galaxy, new CompressedGalaxyReader(file.toString(), new ForkJoinPool(4)).read());
+    }
+
+    @Test
+    void testReaderTruncatedFile() throws IOException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        Path file = write(galaxy);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+        assertThrows(IOException.class, () -> new CompressedGalaxyReader(file.toString()).read());
+    }
+
+    private Path write(Galaxy galaxy) throws IOException {
+        Path file = Files.createTempFile("galaxy", ".galz");
+        CompressedGalaxyWriter writer = new CompressedGalaxyWriter(file.toString());
+        writer.open();
+        writer.write(galaxy);
+        writer.close();
+        return file;
+    }
+
+    private void checkGalaxy(Galaxy expected, Galaxy galaxyRead) {
+        assertEquals(expected.getName(), galaxyRead.getName());
+        assertEquals(expected.getSolarSystemCount(), galaxyRead.getSolarSystemCount());
+        for (SolarSystem s : expected.getSolarSystems().values()) {
+            checkSolarSystem(s.getName(), s.getCentralBody(), s.getPlanets(), galaxyRead.getSolarSystem(s.getName()));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package Persistence;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+import persistence.CsvCatalogImporter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvCatalogImporterTest extends JsonTest {
+    private static final String HEADER = "solarSystem,centralBody,centralBodyType,centralBodyMass,"
+            + "centralBodyRadius,luminosity,planet,radius,orbitSize,moon\n";
+
+    @Test
+    void testImporterNonExistentFile() {
+        CsvCatalogImporter importer = new CsvCatalogImporter("./data/noSuchFile.csv");
+        assertThrows(IOException.class, () -> importer.read("galaxy"));
+    }
+
+    @Test
+    void testImporterGeneralCatalog() throws IOException {
+        Path file = writeCatalog("moon,planet,orbitSize,radius,notes,solarSystem,centralBody,centralBodyType,"
+                + "centralBodyMass,centralBodyRadius,luminosity\n"
+                + "true,planet1,4,10,,solar System1,black hole,Black Hole,10,30,\n"
+                + "false,planet2,3,4,\"a, b\",solar System1,,,,,\n"
+                + "no,,,,,\"solar \"\"System\"\", 2\",giant star,Giant Star,10,45,25\n"
+                + "1,planet3,8,2,,solar System1,,,,,\n");
+
+        Galaxy galaxy = new CsvCatalogImporter(file.toString()).read("galaxy");
+        assertEquals("galaxy", galaxy.getName());
+        assertEquals(2, galaxy.getSolarSystemCount());
+        SolarSystem solarSystem1 = galaxy.getSolarSystem("solar System1");
+        assertEquals(3, solarSystem1.getPlanetCount());
+        assertEquals("Black Hole", solarSystem1.getCentralBody().getCentralBodyType());
+        assertEquals(30, solarSystem1.getCentralBody().getRadius());
+        assertTrue(solarSystem1.getPlanet("planet1").isMoon());
+        assertFalse(solarSystem1.getPlanet("planet2").isMoon());
+        assertEquals(3, solarSystem1.getPlanet("planet2").getOrbitSize());
+        assertTrue(solarSystem1.getPlanet("planet3").isMoon());
+        SolarSystem solarSystem2 = galaxy.getSolarSystem("solar \"System\", 2");
+        assertEquals(0, solarSystem2.getPlanetCount());
+        assertEquals(25, ((GiantStar) solarSystem2.getCentralBody()).getLuminosity());
+    }
+
+    @Test
+    void testImporterAddsToExistingGalaxy() throws IOException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        Path file = writeCatalog(HEADER
+                + "solar System1,,,,,,planet3,8,2,false\n"
+                + "solar System5,white dwarf,White Dwarf,1.1,10,,planet4,1,1,false\n");
+
+        assertEquals(2, new CsvCatalogImporter(file.toString()).importInto(galaxy));
+        assertEquals(5, galaxy.getSolarSystemCount());
+        assertEquals(3, galaxy.getSolarSystem("solar System1").getPlanetCount());
+        assertEquals(1, galaxy.getSolarSystem("solar System5").getPlanetCount());
+    }
+
+    @Test
+    void testImporterInvalidLine() throws IOException {
+        Path file = writeCatalog(HEADER
+                + "solar System1,black hole,Black Hole,10,30,,planet1,10,4,true\n"
+                + "solar System1,,,,,,planet2,big,3,false\n");
+        IOException e = assertThrows(IOException.class,
+                () -> new CsvCatalogImporter(file.toString()).read("galaxy"));
+        assertTrue(e.getMessage().startsWith("Line 3:"));
+    }
+
+    @Test
+    void testImporterDuplicatePlanet() throws IOException {
+        Path file = writeCatalog(HEADER
+                + "solar System1,black hole,Black Hole,10,30,,planet1,10,4,true\n"
+                + "solar System2,star,White Dwarf,1,1,,planet1,2,5,false\n"
+                + "solar System1,,,,,,planet1,3,6,false\n");
+        IOException e = assertThrows(IOException.class,
+                () -> new CsvCatalogImporter(file.toString()).read("galaxy"));
+        assertTrue(e.getMessage().startsWith("Line 4:"));
+    }
+
+    @Test
+    void testImporterMissingColumn() throws IOException {
+        Path file = writeCatalog("solarSystem,planet\nsolar System1,planet1\n");
+        assertThrows(IOException.class, () -> new CsvCatalogImporter(file.toString()).read("galaxy"));
+    }
+
+    @Test
+    void testImporterRejectsUnknownAndBinaryCentralBodies() throws IOException {
+        for (String type : new String[]{"Binary", "Red Dwarf"}) {
+            Path file = writeCatalog(HEADER + "solar System1,star," + type + ",1,1,,,,,\n");
+            assertThrows(IOException.class, () -> new CsvCatalogImporter(file.toString()).read("galaxy"));
+        }
+    }
+
+    private Path writeCatalog(String csv) throws IOException {
+        Path file = Files.createTempFile("catalog", ".csv");
+        Files.writeString(file, csv);
+        return file;
+    }
+}
@@ -0,0 +1,137 @@
+package Persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.DeltaStore;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeltaStoreTest extends JsonTest {
+    private Path snapshot;
+    private Path delta;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        Path directory = Files.createTempDirectory("galaxy");
+        snapshot = directory.resolve("galaxy.json");
+        delta = directory.resolve("galaxy.delta");
+    }
+
+    @Test
+    void testFirstSaveWritesSnapshot() throws IOException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        new DeltaStore(snapshot.toString(), delta.toString(), 1 << 20).save(galaxy);
+
+        assertTrue(Files.exists(snapshot));
+        assertFalse(Files.exists(delta));
+        assertFalse(galaxy.isDirty());
+        checkGalaxy(galaxy, new DeltaStore(snapshot.toString(), delta.toString(), 1 << 20).load());
+    }
+
+    @Test
+    void testSaveAppendsChanges() throws IOException, NameAlreadyUsedException {
+        DeltaStore store = new DeltaStore(snapshot.toString(), delta.toString(), 1 << 20);
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        store.save(galaxy);
+        long snapshotSize = Files.size(snapshot);
+
+        galaxy.getSolarSystem("solar System1").addPlanet(new Planet("planet3", 2, 5, 9, false, true));
+        galaxy.removeSolarSystem("solar System2");
+        galaxy.addSolarSystem(new SolarSystem("solar System5", new BlackHole("black hole 2", 5)));
+        galaxy.changeName("renamed");
+        store.save(galaxy);
+        store.save(galaxy);
+
+        assertEquals(snapshotSize, Files.size(snapshot));
+        assertEquals(5, Files.readAllLines(delta).size());
+        checkGalaxy(galaxy, store.load());
+    }
+
+    @Test
+    void testCompaction() throws IOException {
+        DeltaStore store = new DeltaStore(snapshot.toString(), delta.toString(), 1);
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        store.save(galaxy);
+        galaxy.getSolarSystem("solar System3").clearPlanets();
+        store.save(galaxy);
+        assertTrue(Files.exists(delta));
+
+        galaxy.getSolarSystem("solar System1").removePlanet("planet1");
+        store.save(galaxy);
+        assertFalse(Files.exists(delta));
+        checkGalaxy(galaxy, store.load());
+    }
+
+    @Test
+    void testStaleDeltaIgnoredAfterCompaction() throws IOException {
+        DeltaStore store = new DeltaStore(snapshot.toString(), delta.toString(), 1 << 20);
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        store.save(galaxy);
+        galaxy.getSolarSystem("solar System1").addPlanet(new Planet("planet3", 2, 5, 9, false, true));
+        store.save(galaxy);
+        byte[] staleDelta = Files.readAllBytes(delta);
+
+        galaxy.getSolarSystem("solar System1").removePlanet("planet3");
+        store.compact(galaxy);
+        Files.write(delta, staleDelta);
+        checkGalaxy(galaxy, store.load());
+        assertEquals(2, store.load().getSolarSystem("solar System1").getPlanetCount());
+
+        galaxy.removeSolarSystem("solar System2");
+        store.save(galaxy);
+        assertEquals(2, Files.readAllLines(delta).size());
+        checkGalaxy(galaxy, store.load());
+    }
+
+    @Test
+    void testTruncatedLastChangeIgnored() throws IOException {
+        DeltaStore store = new DeltaStore(snapshot.toString(), delta.toString(), 1 << 20);
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        store.save(galaxy);
+        galaxy.removeSolarSystem("solar System4");
+        store.save(galaxy);
+        Files.write(delta, "{\"put\":{\"name\":\"solar".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        checkGalaxy(galaxy, store.load());
+    }
+
+    @Test
+    void testSaveAfterTruncatedLastChange() throws IOException {
+        DeltaStore store = new DeltaStore(snapshot.toString(), delta.toString(), 1 << 20);
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        store.save(galaxy);
+        galaxy.removeSolarSystem("solar System4");
+        store.save(galaxy);
+        Files.write(delta, "{\"put\":{\"name\":\"solar".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        galaxy.removeSolarSystem("solar System3");
+        store.save(galaxy);
+        assertEquals(3, Files.readAllLines(delta).size());
+        checkGalaxy(galaxy, store.load());
+    }
+
+    private void checkGalaxy(Galaxy expected, Galaxy galaxyRead) {
+        assertEquals(expected.getName(), galaxyRead.getName());
+        assertEquals(expected.getSolarSystemCount(), galaxyRead.getSolarSystemCount());
+        assertFalse(galaxyRead.isDirty());
+        for (SolarSystem s : expected.getSolarSystems().values()) {
+            checkSolarSystem(s.getName(), s.getCentralBody(), s.getPlanets(), galaxyRead.getSolarSystem(s.getName()));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package Persistence;
+
+import model.Event;
+import model.EventLog;
+import org.junit.jupiter.api.Test;
+import persistence.EventLogSpiller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventLogSpillerTest {
+
+    @Test
+    void testSpillEvents() throws IOException {
+        Path directory = Files.createTempDirectory("eventlog");
+        EventLogSpiller spiller = new EventLogSpiller(directory.toString(), 1 << 20, 2);
+        spiller.start();
+        EventLog.getInstance().logEvent(new Event("spilled event"));
+        spiller.close();
+
+        List<String> lines = readSegments(directory);
+        assertTrue(lines.stream().anyMatch(line -> line.endsWith("\tGENERAL\tspilled event")));
+        assertEquals(spiller.getSpilledCount() + spiller.getLostCount(), EventLog.getInstance().getPosition());
+    }
+
+    @Test
+    void testSegmentsRollAndAreRetained() throws IOException {
+        Path directory = Files.createTempDirectory("eventlog");
+        EventLogSpiller spiller = new EventLogSpiller(directory.toString(), 64, 2);
+        spiller.start();
+        for (int i = 0; i < 10; i++) {
+            EventLog.getInstance().logEvent(new Event("rolling event " + i));
+        }
+        spiller.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+        List<String> lines = readSegments(directory);
+        assertTrue(lines.get(lines.size() - 1).endsWith("rolling event 9"));
+    }
+
+    @Test
+    void testFailedDrainDoesNotRepeatEvents() throws IOException {
+        Path directory = Files.createTempDirectory("eventlog");
+        EventLogSpiller spiller = new EventLogSpiller(directory.toString(), 64, 100);
+        spiller.start();
+        Path blocked = Files.createDirectory(directory.resolve("events-000002.log"));
+        for (int i = 0; i < 5; i++) {
+            EventLog.getInstance().logEvent(new Event("retried event " + i));
+        }
+        assertThrows(IOException.class, () -> spiller.drain());
+        Files.delete(blocked);
+        spiller.drain();
+        spiller.close();
+
+        List<String> lines = readSegments(directory).stream()
+                .filter(line -> line.contains("\tretried event "))
+                .collect(Collectors.toList());
+        assertEquals(5, lines.size());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(lines.get(i).endsWith("retried event " + i));
+        }
+    }
+
+    private List<String> readSegments(Path directory) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path segment : files.sorted().collect(Collectors.toList())) {
+                lines.addAll(Files.readAllLines(segment, StandardCharsets.UTF_8));
+            }
+        }
+        return lines;
+    }
+}
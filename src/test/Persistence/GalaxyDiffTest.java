@@ -0,0 +1,125 @@
+package Persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+import org.junit.jupiter.api.Test;
+import persistence.GalaxyDiff;
+import persistence.GalaxyDiffListener;
+import persistence.NdjsonWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GalaxyDiffTest extends JsonTest {
+
+    @Test
+    void testSameGalaxy() throws IOException, NameAlreadyUsedException {
+        Path file = write(buildOldGalaxy());
+        List<String> differences = new ArrayList<>();
+        assertEquals(0, new GalaxyDiff(file.toString(), write(buildOldGalaxy()).toString())
+                .run(new RecordingListener(differences)));
+        assertTrue(differences.isEmpty());
+    }
+
+    @Test
+    void testChangedGalaxy() throws IOException, NameAlreadyUsedException {
+        Galaxy newer = buildOldGalaxy();
+        newer.removeSolarSystem("binary System");
+        newer.addSolarSystem(new SolarSystem("binary System", new Binary("binary",
+                new GiantStar("giant star", "Giant Star", 10, 45, 25),
+                new WhiteDwarf("white dwarf", "White Dwarf", 1.2, 10))));
+        newer.getSolarSystem("binary System").addPlanet(new Planet("planet3", 2, 5, 8, false, true));
+        newer.getSolarSystem("solar System1").removePlanet("planet1");
+        newer.getSolarSystem("solar System1").addPlanet(new Planet("planet1", 10, 13, 6, true, false));
+        newer.getSolarSystem("solar System1").removePlanet("planet2");
+        newer.removeSolarSystem("solar System2");
+        newer.addSolarSystem(new SolarSystem("solar System2",
+                new NeutronStar("neutron star", "Neutron Star", 3, 15000)));
+        newer.removeSolarSystem("solar System3");
+        newer.getSolarSystem("solar System4").addPlanet(new Planet("planet4", 1, 2, 3, false, true));
+        newer.addSolarSystem(new SolarSystem("solar System5", new BlackHole("black hole", "Black Hole", 10, 30)));
+
+        List<String> differences = new ArrayList<>();
+        long count = new GalaxyDiff(write(buildOldGalaxy()).toString(), write(newer).toString())
+                .run(new RecordingListener(differences));
+        assertEquals(List.of("~ binary System", "~ solar System1/planet1", "- solar System1/planet2",
+                "~ solar System2", "- solar System3", "+ solar System4/planet4", "+ solar System5"), differences);
+        assertEquals(7, count);
+    }
+
+    @Test
+    void testUnsortedFile() throws IOException, NameAlreadyUsedException {
+        Path sorted = write(buildOldGalaxy());
+        List<String> lines = Files.readAllLines(sorted);
+        Path unsorted = Files.createTempFile("galaxy", ".ndjson");
+        Files.write(unsorted, List.of(lines.get(0), lines.get(2), lines.get(1)));
+        GalaxyDiff diff = new GalaxyDiff(sorted.toString(), unsorted.toString());
+        assertThrows(IOException.class, () -> diff.run(new RecordingListener(new ArrayList<>())));
+    }
+
+    @Test
+    void testMissingFile() throws IOException, NameAlreadyUsedException {
+        GalaxyDiff diff = new GalaxyDiff(write(buildOldGalaxy()).toString(), "./data/noSuchFile.ndjson");
+        assertThrows(IOException.class, () -> diff.run(new RecordingListener(new ArrayList<>())));
+    }
+
+    private Galaxy buildOldGalaxy() throws NameAlreadyUsedException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        galaxy.addSolarSystem(buildBinarySolarSystem());
+        return galaxy;
+    }
+
+    private Path write(Galaxy galaxy) throws IOException {
+        Path file = Files.createTempFile("galaxy", ".ndjson");
+        NdjsonWriter writer = new NdjsonWriter(file.toString(), false);
+        writer.open();
+        writer.write(galaxy);
+        writer.close();
+        return file;
+    }
+
+    // records each difference as a line like those of GalaxyDiffTool
+    private static class RecordingListener implements GalaxyDiffListener {
+        private final List<String> differences;
+
+        RecordingListener(List<String> differences) {
+            this.differences = differences;
+        }
+
+        @Override
+        public void solarSystemAdded(SolarSystem added) {
+            differences.add("+ " + added.getName());
+        }
+
+        @Override
+        public void solarSystemRemoved(SolarSystem removed) {
+            differences.add("- " + removed.getName());
+        }
+
+        @Override
+        public void centralBodyChanged(String solarSystemName, CentralBody before, CentralBody after) {
+            differences.add("~ " + solarSystemName);
+        }
+
+        @Override
+        public void planetAdded(String solarSystemName, Planet added) {
+            differences.add("+ " + solarSystemName + "/" + added.getName());
+        }
+
+        @Override
+        public void planetRemoved(String solarSystemName, Planet removed) {
+            differences.add("- " + solarSystemName + "/" + removed.getName());
+        }
+
+        @Override
+        public void planetChanged(String solarSystemName, Planet before, Planet after) {
+            differences.add("~ " + solarSystemName + "/" + after.getName());
+        }
+    }
+}
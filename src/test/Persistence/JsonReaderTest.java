@@ -1,12 +1,18 @@
 package Persistence;
 
+import exceptions.NameAlreadyUsedException;
 import model.*;
+import org.json.JSONException;
 import org.junit.jupiter.api.Test;
 import persistence.JsonReader;
+import persistence.JsonStreamWriter;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -78,4 +84,52 @@ public class JsonReaderTest extends JsonTest {
             fail("Shouldn't have thrown here");
         }
     }
+
+    @Test
+    public void testReaderUnknownCentralBodyType() throws IOException {
+        Path file = Files.createTempFile("galaxy", ".json");
+        Files.writeString(file, "{\"name\": \"galaxy\", \"solarSystems\": [{\"name\": \"Solar\", \"centralBody\":"
+                + " {\"name\": \"Sun\", \"centralBodyType\": \"Red Dwarf\", \"mass\": 1, \"radius\": 1},"
+                + " \"planets\": []}]}");
+        try {
+            new JsonReader(file.toString()).read();
+            fail("JSONException expected");
+        } catch (JSONException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testParallelReaderDuplicateName() {
+        JsonReader reader = new JsonReader("./data/testReaderDuplicateNames.json", ForkJoinPool.commonPool());
+        try {
+            Galaxy galaxyRead = reader.read();
+            fail("Should've thrown");
+        } catch (RuntimeException e) {
+            // pass
+        } catch (Exception e) {
+            fail("Shouldn't have thrown here");
+        }
+    }
+
+    @Test
+    public void testParallelReaderLargeGalaxy() throws IOException, NameAlreadyUsedException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        for (int i = 0; i < 1000; i++) {
+            SolarSystem solarSystem = new SolarSystem("system" + i, new BlackHole("black hole" + i, i));
+            solarSystem.addPlanet(new Planet("planet" + i, 1, 2, 3, i % 2 == 0, i % 3 == 0));
+            galaxy.addSolarSystem(solarSystem);
+        }
+        Path file = Files.createTempFile("galaxy", ".json");
+        JsonStreamWriter writer = new JsonStreamWriter(file.toString(), false);
+        writer.open();
+        writer.write(galaxy);
+        writer.close();
+
+        Galaxy galaxyRead = new JsonReader(file.toString(), new ForkJoinPool(4)).read();
+        assertEquals(1000, galaxyRead.getSolarSystemCount());
+        for (SolarSystem s : galaxy.getSolarSystems().values()) {
+            checkSolarSystem(s.getName(), s.getCentralBody(), s.getPlanets(), galaxyRead.getSolarSystem(s.getName()));
+        }
+    }
 }
@@ -0,0 +1,196 @@
+package Persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+import org.junit.jupiter.api.Test;
+import persistence.JsonReader;
+import persistence.JsonStreamReader;
+import persistence.JsonStreamWriter;
+import persistence.LoadProgress;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonStreamReaderTest extends JsonTest {
+
+    @Test
+    public void testReaderNonExistentFile() {
+        JsonStreamReader reader = new JsonStreamReader("./data/noSuchFile.json");
+        try {
+            reader.read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testReaderEmptyGalaxy() {
+        JsonStreamReader reader = new JsonStreamReader("./data/testReaderEmptyGalaxy.json");
+        try {
+            Galaxy galaxy = reader.read();
+            assertEquals("galaxy", galaxy.getName());
+            assertEquals(0, galaxy.getSolarSystemCount());
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    public void testReaderGeneralGalaxy() {
+        try {
+            Galaxy expected = new JsonReader("./data/testReaderGeneralGalaxy.json").read();
+            Galaxy galaxyRead = new JsonStreamReader("./data/testReaderGeneralGalaxy.json").read();
+
+            assertEquals("galaxy", galaxyRead.getName());
+            assertEquals(4, galaxyRead.getSolarSystemCount());
+            for (SolarSystem s : expected.getSolarSystems().values()) {
+                checkSolarSystem(s.getName(), s.getCentralBody(), s.getPlanets(),
+                        galaxyRead.getSolarSystem(s.getName()));
+            }
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    public void testReaderNameFirstAndEscapes() throws IOException {
+        Path file = Files.createTempFile("galaxy", ".json");
+        Files.write(file, ("{\"name\": \"Milky \\\"Way\\\"\", \"solarSystemCount\": 1, \"solarSystems\": [{"
+                + "\"name\": \"Sol\\u0061r\", \"centralBody\": {\"name\": \"Sun\", \"centralBodyType\": \"Giant Star\","
+                + " \"mass\": 1.4, \"radius\": 0.5, \"luminosity\": 1, \"extra\": [1, {\"a\": null}]},"
+                + " \"planets\": [{\"name\": \"Earth\", \"mass\": 1e0, \"radius\": 1, \"orbitSize\": 1,"
+                + " \"moon\": true, \"rocky\": true}]}]}").getBytes(StandardCharsets.UTF_8));
+
+        Galaxy galaxy = new JsonStreamReader(file.toString()).read();
+        assertEquals("Milky \"Way\"", galaxy.getName());
+        SolarSystem solarSystem = galaxy.getSolarSystem("Solar");
+        assertEquals(1, solarSystem.getPlanetCount());
+        assertEquals(1.0, solarSystem.getPlanet("Earth").getMass());
+        assertEquals(1, ((GiantStar) solarSystem.getCentralBody()).getLuminosity());
+    }
+
+    @Test
+    public void testReaderMalformed() throws IOException {
+        Path file = Files.createTempFile("galaxy", ".json");
+        Files.write(file, "{\"name\": \"galaxy\", \"solarSystems\": [{\"name\": ".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> new JsonStreamReader(file.toString()).read());
+    }
+
+    @Test
+    public void testReaderRejectsInvalidJson() throws IOException {
+        String planet = "{\"name\": \"Earth\", \"mass\": %s, \"radius\": 1, \"orbitSize\": 1,"
+                + " \"moon\": true, \"rocky\": true}";
+        String galaxy = "{\"name\": \"galaxy\", \"solarSystems\": [{\"name\": \"Solar\", \"centralBody\":"
+                + " {\"name\": \"Sun\", \"centralBodyType\": \"Giant Star\", \"mass\": 1, \"radius\": 1,"
+                + " \"luminosity\": 1}, \"planets\": [%s]}]}%s";
+        String valid = String.format(galaxy, String.format(planet, "1"), "");
+        assertEquals("galaxy", read(valid).getName());
+
+        assertThrows(IOException.class, () -> read(valid.replace(", \"radius\": 1, \"orbitSize\"",
+                " \"radius\": 1, \"orbitSize\"")));
+        assertThrows(IOException.class, () -> read(valid.replace("\"rocky\": true}", "\"rocky\": true,}")));
+        assertThrows(IOException.class, () -> read(valid.replace("[{\"name\": \"Earth\"", "[,{\"name\": \"Earth\"")));
+        assertThrows(IOException.class, () -> read(String.format(galaxy, String.format(planet, "1") + ",", "")));
+        assertThrows(IOException.class, () -> read(String.format(galaxy, String.format(planet, "1"), " x")));
+        assertThrows(IOException.class, () -> read(String.format(galaxy, String.format(planet, "1"), " {}")));
+        for (String number : new String[] {"NaN", "Infinity", "1d", "0x1p3", "+5", "1.", ".5", "01", "-", "1e"}) {
+            assertThrows(IOException.class, () -> read(String.format(galaxy, String.format(planet, number), "")),
+                    number);
+        }
+        for (String number : new String[] {"0", "-0.5", "1.5e3", "2E-2", "1e+2"}) {
+            assertEquals(Double.parseDouble(number), read(String.format(galaxy, String.format(planet, number), ""))
+                    .getSolarSystem("Solar").getPlanet("Earth").getMass(), number);
+        }
+    }
+
+    // EFFECTS: writes json to a temporary file and reads a galaxy from it
+    private Galaxy read(String json) throws IOException {
+        Path file = Files.createTempFile("galaxy", ".json");
+        Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+        return new JsonStreamReader(file.toString()).read();
+    }
+
+    @Test
+    public void testReaderUnknownCentralBodyType() throws IOException {
+        Path file = Files.createTempFile("galaxy", ".json");
+        Files.write(file, ("{\"name\": \"galaxy\", \"solarSystems\": [{\"name\": \"Solar\", \"centralBody\":"
+                + " {\"name\": \"Sun\", \"centralBodyType\": \"Red Dwarf\", \"mass\": 1, \"radius\": 1},"
+                + " \"planets\": []}]}").getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> new JsonStreamReader(file.toString()).read());
+    }
+
+    @Test
+    public void testReaderReportsProgress() throws IOException, NameAlreadyUsedException {
+        Path file = writeLargeGalaxy(200);
+        List<long[]> reports = new ArrayList<>();
+        Galaxy galaxy = new JsonStreamReader(file.toString()).read(new LoadProgress() {
+            @Override
+            public void progress(long bytesRead, long totalBytes, int solarSystemsParsed) {
+                reports.add(new long[]{bytesRead, totalBytes, solarSystemsParsed});
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        });
+
+        assertEquals(200, galaxy.getSolarSystemCount());
+        assertEquals(4, reports.size());
+        assertEquals(64, reports.get(0)[2]);
+        assertTrue(reports.get(1)[0] >= reports.get(0)[0]);
+        long[] last = reports.get(reports.size() - 1);
+        assertEquals(Files.size(file), last[0]);
+        assertEquals(Files.size(file), last[1]);
+        assertEquals(200, last[2]);
+    }
+
+    @Test
+    public void testReaderCancelled() throws IOException, NameAlreadyUsedException {
+        Path file = writeLargeGalaxy(200);
+        int[] parsed = new int[1];
+        LoadProgress progress = new LoadProgress() {
+            @Override
+            public void progress(long bytesRead, long totalBytes, int solarSystemsParsed) {
+                parsed[0] = solarSystemsParsed;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return parsed[0] >= 64;
+            }
+        };
+        assertThrows(CancellationException.class, () -> new JsonStreamReader(file.toString()).read(progress));
+        assertEquals(64, parsed[0]);
+    }
+
+    @Test
+    public void testReaderDuplicateName() {
+        JsonStreamReader reader = new JsonStreamReader("./data/testReaderDuplicateNames.json");
+        assertThrows(RuntimeException.class, () -> reader.read());
+    }
+
+    private Path writeLargeGalaxy(int solarSystemCount) throws IOException, NameAlreadyUsedException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        for (int i = 0; i < solarSystemCount; i++) {
+            SolarSystem solarSystem = new SolarSystem("solar System" + i,
+                    new BlackHole("black hole" + i, "Black Hole", 10, 30));
+            solarSystem.addPlanet(new Planet("planet" + i, 10, 13, 4, true, false));
+            galaxy.addSolarSystem(solarSystem);
+        }
+        Path file = Files.createTempFile("galaxy", ".json");
+        JsonStreamWriter writer = new JsonStreamWriter(file.toString(), true);
+        writer.open();
+        writer.write(galaxy);
+        writer.close();
+        return file;
+    }
+}
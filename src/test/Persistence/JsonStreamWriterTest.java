@@ -0,0 +1,126 @@
+package Persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.Binary;
+import model.BlackHole;
+import model.Galaxy;
+import model.Planet;
+import model.SolarSystem;
+import org.junit.jupiter.api.Test;
+import persistence.JsonReader;
+import persistence.JsonStreamReader;
+import persistence.JsonStreamWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonStreamWriterTest extends JsonTest {
+
+    @Test
+    void testWriterInvalidFile() {
+        JsonStreamWriter writer = new JsonStreamWriter("./data/noSuchDirectory/galaxy.json", true);
+        assertThrows(IOException.class, () -> writer.open());
+    }
+
+    @Test
+    void testWriterEmptyGalaxy() throws IOException {
+        Path file = Files.createTempFile("galaxy", ".json");
+        JsonStreamWriter writer = new JsonStreamWriter(file.toString(), false);
+        writer.open();
+        writer.write(new Galaxy("galaxy"));
+        writer.close();
+
+        assertEquals("{\"name\":\"galaxy\",\"solarSystemCount\":0,\"solarSystems\":[]}",
+                Files.readString(file));
+        Galaxy galaxy = new JsonReader(file.toString()).read();
+        assertEquals("galaxy", galaxy.getName());
+        assertEquals(0, galaxy.getSolarSystemCount());
+    }
+
+    @Test
+    void testWriterGeneralGalaxy() throws IOException {
+        Galaxy galaxy = new Galaxy("galaxy \"quoted\"");
+        buildGalaxy(galaxy);
+        for (boolean pretty : new boolean[]{true, false}) {
+            Path file = Files.createTempFile("galaxy", ".json");
+            JsonStreamWriter writer = new JsonStreamWriter(file.toString(), pretty);
+            writer.open();
+            writer.write(galaxy);
+            writer.close();
+
+            checkGalaxy(galaxy, new JsonReader(file.toString()).read());
+            checkGalaxy(galaxy, new JsonStreamReader(file.toString()).read());
+        }
+    }
+
+    @Test
+    void testWriterBinaryCentralBody() throws IOException, NameAlreadyUsedException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        galaxy.addSolarSystem(buildBinarySolarSystem());
+        Path file = Files.createTempFile("galaxy", ".json");
+        JsonStreamWriter writer = new JsonStreamWriter(file.toString(), false);
+        writer.open();
+        writer.write(galaxy);
+        writer.close();
+
+        for (Galaxy galaxyRead : new Galaxy[]{new JsonReader(file.toString()).read(),
+                new JsonStreamReader(file.toString()).read()}) {
+            checkGalaxy(galaxy, galaxyRead);
+            Binary binary = (Binary) galaxyRead.getSolarSystem("binary System").getCentralBody();
+            assertEquals("giant star", binary.getCentralBody1().getName());
+            assertEquals(1.1, binary.getCentralBody2().getMass());
+            assertTrue(galaxy.toJson().similar(galaxyRead.toJson()));
+        }
+    }
+
+    @Test
+    void testWriterNumbersReadBackExactly() throws IOException, NameAlreadyUsedException {
+        double[] numbers = {0.1, 1.0 / 3, 2.5e-7, 123456.789, 1e22, 9007199254740993.0, Double.MIN_VALUE,
+                Double.MAX_VALUE, -0.0, -42};
+        Galaxy galaxy = new Galaxy("galaxy");
+        SolarSystem solarSystem = new SolarSystem("solar System", new BlackHole("black hole", "Black Hole", 10, 30));
+        for (int i = 0; i < numbers.length; i++) {
+            solarSystem.addPlanet(new Planet("planet" + i, numbers[i], numbers[i], numbers[i], false, true));
+        }
+        galaxy.addSolarSystem(solarSystem);
+        Path file = Files.createTempFile("galaxy", ".json");
+        JsonStreamWriter writer = new JsonStreamWriter(file.toString(), false);
+        writer.open();
+        writer.write(galaxy);
+        writer.close();
+
+        String json = Files.readString(file);
+        assertTrue(json.contains("\"mass\":0.1,"));
+        assertTrue(json.contains("\"mass\":10,"));
+        assertTrue(json.contains("\"radius\":123456.789,"));
+        SolarSystem solarSystemRead = new JsonStreamReader(file.toString()).read().getSolarSystem("solar System");
+        for (int i = 0; i < numbers.length; i++) {
+            Planet planet = solarSystemRead.getPlanet("planet" + i);
+            assertEquals(numbers[i], planet.getRadius());
+            assertEquals(numbers[i], planet.getOrbitSize());
+        }
+    }
+
+    @Test
+    void testWriterRejectsNonFiniteNumbers() throws IOException, NameAlreadyUsedException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        SolarSystem solarSystem = new SolarSystem("solar System", new BlackHole("black hole", "Black Hole", 10, 30));
+        solarSystem.addPlanet(new Planet("planet", Double.NaN, 1, 1, false, true));
+        galaxy.addSolarSystem(solarSystem);
+        JsonStreamWriter writer = new JsonStreamWriter(Files.createTempFile("galaxy", ".json").toString(), false);
+        writer.open();
+        assertThrows(IOException.class, () -> writer.write(galaxy));
+        writer.close();
+    }
+
+    private void checkGalaxy(Galaxy expected, Galaxy galaxyRead) {
+        assertEquals(expected.getName(), galaxyRead.getName());
+        assertEquals(expected.getSolarSystemCount(), galaxyRead.getSolarSystemCount());
+        for (SolarSystem s : expected.getSolarSystems().values()) {
+            checkSolarSystem(s.getName(), s.getCentralBody(), s.getPlanets(), galaxyRead.getSolarSystem(s.getName()));
+        }
+    }
+}
@@ -63,4 +63,13 @@ public class JsonTest {
         solarSystem.addPlanet(new Planet("planet1", 10, 13, 4, true, false));
         solarSystem.addPlanet(new Planet("planet2", 4, 7, 3, false, true));
     }
+
+    // helper function to build a solar system with a binary at its centre
+    protected SolarSystem buildBinarySolarSystem() {
+        Binary binary = new Binary("binary", new GiantStar("giant star", "Giant Star", 10, 45, 25),
+                new WhiteDwarf("white dwarf", "White Dwarf", 1.1, 10));
+        SolarSystem solarSystem = new SolarSystem("binary System", binary);
+        solarSystem.addPlanet(new Planet("planet3", 2, 5, 8, false, true));
+        return solarSystem;
+    }
 }
@@ -0,0 +1,80 @@
+package Persistence;
+
+import model.Galaxy;
+import model.SolarSystem;
+import org.junit.jupiter.api.Test;
+import persistence.BinarySnapshotWriter;
+import persistence.MappedSnapshotReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedSnapshotReaderTest extends JsonTest {
+
+    @Test
+    void testReaderNonExistentFile() {
+        MappedSnapshotReader reader = new MappedSnapshotReader("./data/noSuchFile.bin");
+        assertThrows(IOException.class, () -> reader.read());
+    }
+
+    @Test
+    void testReaderNotASnapshot() {
+        MappedSnapshotReader reader = new MappedSnapshotReader("./data/testReaderGeneralGalaxy.json");
+        assertThrows(IOException.class, () -> reader.read());
+    }
+
+    @Test
+    void testReaderTruncatedSnapshot() throws IOException {
+        Path file = writeSnapshot();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, 20));
+        MappedSnapshotReader reader = new MappedSnapshotReader(file.toString());
+        assertThrows(IOException.class, () -> reader.read());
+    }
+
+    @Test
+    void testReaderGeneralGalaxy() throws IOException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        Galaxy galaxyRead = new MappedSnapshotReader(writeSnapshot().toString()).read();
+
+        assertEquals("galaxy", galaxyRead.getName());
+        assertEquals(4, galaxyRead.getSolarSystemCount());
+        assertTrue(galaxyRead.hasUnloadedSolarSystems());
+        SolarSystem s = galaxy.getSolarSystem("solar System1");
+        checkSolarSystem(s.getName(), s.getCentralBody(), s.getPlanets(), galaxyRead.getSolarSystem(s.getName()));
+        assertTrue(galaxyRead.hasUnloadedSolarSystems());
+        assertTrue(galaxy.toJson().similar(galaxyRead.toJson()));
+        assertFalse(galaxyRead.hasUnloadedSolarSystems());
+    }
+
+    @Test
+    void testReaderFindsSolarSystemsInDirectory() throws IOException {
+        Galaxy galaxyRead = new MappedSnapshotReader(writeSnapshot().toString()).read();
+
+        assertTrue(galaxyRead.hasSolarSystem("solar System1"));
+        assertTrue(galaxyRead.hasSolarSystem("solar System4"));
+        assertFalse(galaxyRead.hasSolarSystem("solar System0"));
+        assertFalse(galaxyRead.hasSolarSystem("solar System5"));
+        assertNull(galaxyRead.getSolarSystem("no such solar system"));
+        assertEquals(0, galaxyRead.getSolarSystem("solar System3").getPlanetCount());
+        assertEquals(Set.of("solar System1", "solar System2", "solar System3", "solar System4"),
+                galaxyRead.getSolarSystems().keySet());
+    }
+
+    private Path writeSnapshot() throws IOException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        Path file = Files.createTempFile("galaxy", ".bin");
+        BinarySnapshotWriter writer = new BinarySnapshotWriter(file.toString());
+        writer.open();
+        writer.write(galaxy);
+        writer.close();
+        return file;
+    }
+}
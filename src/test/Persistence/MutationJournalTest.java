@@ -0,0 +1,168 @@
+package Persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.MutationJournal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MutationJournalTest extends JsonTest {
+    private Path file;
+    private MutationJournal journal;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        file = Files.createTempDirectory("journal").resolve("galaxy.journal");
+        journal = new MutationJournal(file.toString(), 10);
+        journal.open();
+    }
+
+    @Test
+    void testReplayMissingJournal() throws IOException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        assertEquals(0, MutationJournal.replay(file.resolveSibling("missing").toString(), galaxy));
+    }
+
+    @Test
+    void testReplayChanges() throws IOException, NameAlreadyUsedException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        galaxy.setListener(journal);
+        makeChanges(galaxy);
+        journal.close();
+
+        Galaxy saved = new Galaxy("galaxy");
+        buildGalaxy(saved);
+        assertEquals(7, MutationJournal.replay(file.toString(), saved));
+        checkGalaxy(galaxy, saved);
+    }
+
+    @Test
+    void testOversizedSolarSystemSplit() throws IOException, NameAlreadyUsedException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        galaxy.setListener(journal);
+        SolarSystem large = new SolarSystem("large", new BlackHole("black hole", 10));
+        String padding = "p".repeat(10000);
+        for (int i = 0; i < 1700; i++) {
+            large.addPlanet(new Planet(padding + i, 1, 1, i + 1, false, true));
+        }
+        galaxy.addSolarSystem(large);
+        galaxy.changeName("renamed");
+        journal.close();
+
+        Galaxy saved = new Galaxy("galaxy");
+        assertEquals(1702, MutationJournal.replay(file.toString(), saved));
+        assertEquals(1700, saved.getSolarSystem("large").getPlanetCount());
+        assertEquals("renamed", saved.getName());
+    }
+
+    @Test
+    void testCheckpointAndReset() throws IOException, NameAlreadyUsedException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        galaxy.setListener(journal);
+        makeChanges(galaxy);
+        journal.checkpoint();
+        galaxy.getSolarSystem("solar System3").addPlanet(new Planet("planet4", 1, 1, 8, false, false));
+        journal.sync();
+
+        Galaxy saved = new Galaxy("galaxy");
+        buildGalaxy(saved);
+        makeChanges(saved);
+        assertEquals(1, MutationJournal.replay(file.toString(), saved));
+        checkGalaxy(galaxy, saved);
+
+        journal.reset("new galaxy");
+        journal.close();
+        Galaxy fresh = new Galaxy("galaxy");
+        buildGalaxy(fresh);
+        assertEquals(1, MutationJournal.replay(file.toString(), fresh));
+        assertEquals("new galaxy", fresh.getName());
+        assertEquals(0, fresh.getSolarSystemCount());
+    }
+
+    @Test
+    void testCheckpointKeepsRecordsAfterMark() throws IOException, NameAlreadyUsedException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        galaxy.setListener(journal);
+        makeChanges(galaxy);
+        long mark = journal.mark();
+        galaxy.removeSolarSystem("solar System3");
+        journal.checkpoint(mark);
+        galaxy.changeName("renamed again");
+        journal.close();
+
+        Galaxy saved = new Galaxy("galaxy");
+        buildGalaxy(saved);
+        makeChanges(saved);
+        assertEquals(2, MutationJournal.replay(file.toString(), saved));
+        checkGalaxy(galaxy, saved);
+    }
+
+    @Test
+    void testFailedCheckpointKeepsJournalOpen() throws IOException, NameAlreadyUsedException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        galaxy.setListener(journal);
+        makeChanges(galaxy);
+        long mark = journal.mark();
+        galaxy.removeSolarSystem("solar System3");
+        Path blocked = Files.createDirectory(file.resolveSibling(file.getFileName() + ".tmp"));
+        assertThrows(IOException.class, () -> journal.checkpoint(mark));
+        Files.delete(blocked);
+        galaxy.changeName("renamed again");
+        journal.close();
+
+        Galaxy saved = new Galaxy("galaxy");
+        buildGalaxy(saved);
+        assertTrue(MutationJournal.replay(file.toString(), saved) > 2);
+        checkGalaxy(galaxy, saved);
+    }
+
+    @Test
+    void testTornRecordIgnored() throws IOException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        galaxy.setListener(journal);
+        galaxy.changeName("renamed");
+        galaxy.removeSolarSystem("solar System4");
+        journal.close();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        Galaxy saved = new Galaxy("galaxy");
+        buildGalaxy(saved);
+        assertEquals(1, MutationJournal.replay(file.toString(), saved));
+        assertEquals("renamed", saved.getName());
+        assertEquals(4, saved.getSolarSystemCount());
+    }
+
+    private void makeChanges(Galaxy galaxy) throws NameAlreadyUsedException {
+        SolarSystem solarSystem1 = galaxy.getSolarSystem("solar System1");
+        solarSystem1.addPlanet(new Planet("planet3", 2, 5, 9, false, true));
+        solarSystem1.addPlanet(new Planet("collider", 1, 1, 9, false, false));
+        solarSystem1.removePlanet("planet1");
+        galaxy.getSolarSystem("solar System2").clearPlanets();
+        galaxy.removeSolarSystem("solar System4");
+        SolarSystem added = new SolarSystem("solar System5", new GiantStar("giant", "Giant Star", 3, 4, 5));
+        added.addPlanet(new Planet("planet5", 1, 2, 3, true, true));
+        galaxy.addSolarSystem(added);
+        galaxy.changeName("renamed");
+    }
+
+    private void checkGalaxy(Galaxy expected, Galaxy galaxyRead) {
+        assertEquals(expected.getName(), galaxyRead.getName());
+        assertEquals(expected.getSolarSystemCount(), galaxyRead.getSolarSystemCount());
+        for (SolarSystem s : expected.getSolarSystems().values()) {
+            checkSolarSystem(s.getName(), s.getCentralBody(), s.getPlanets(), galaxyRead.getSolarSystem(s.getName()));
+        }
+    }
+}
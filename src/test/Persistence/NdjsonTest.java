@@ -0,0 +1,135 @@
+package Persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+import org.junit.jupiter.api.Test;
+import persistence.NdjsonReader;
+import persistence.NdjsonWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NdjsonTest extends JsonTest {
+
+    @Test
+    void testWriterInvalidFile() {
+        NdjsonWriter writer = new NdjsonWriter("./data/noSuchDirectory/galaxy.ndjson", false);
+        assertThrows(IOException.class, () -> writer.open());
+    }
+
+    @Test
+    void testReaderEmptyFile() throws IOException {
+        Path file = Files.createTempFile("galaxy", ".ndjson");
+        assertThrows(IOException.class, () -> new NdjsonReader(file.toString()).read());
+    }
+
+    @Test
+    void testReaderInvalidLine() throws IOException {
+        Path file = Files.createTempFile("galaxy", ".ndjson");
+        Files.writeString(file, "{\"galaxy\": \"galaxy\", \"name\": \"solar System1\"}\n");
+        assertThrows(IOException.class, () -> new NdjsonReader(file.toString()).read());
+        assertThrows(IOException.class, () -> new NdjsonReader(file.toString(), ForkJoinPool.commonPool()).read());
+    }
+
+    @Test
+    void testGeneralGalaxy() throws IOException, NameAlreadyUsedException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        galaxy.addSolarSystem(buildBinarySolarSystem());
+        Path file = write(galaxy);
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(6, lines.size());
+        assertEquals("{\"format\":\"galaxy-ndjson\",\"version\":1,\"name\":\"galaxy\"}", lines.get(0));
+        for (String line : lines.subList(1, lines.size())) {
+            assertTrue(line.startsWith("{\"galaxy\":\"galaxy\",\"name\":"));
+        }
+        checkGalaxy(galaxy, new NdjsonReader(file.toString()).read());
+        checkGalaxy(galaxy, new NdjsonReader(file.toString(), ForkJoinPool.commonPool()).read());
+    }
+
+    @Test
+    void testEmptyGalaxy() throws IOException {
+        Galaxy galaxy = new Galaxy("empty galaxy");
+        Path file = write(galaxy);
+        checkGalaxy(galaxy, new NdjsonReader(file.toString()).read());
+        assertEquals(0, new NdjsonReader(file.toString()).forEach(s -> fail("No solar systems expected")));
+    }
+
+    @Test
+    void testReaderNewerHeader() throws IOException {
+        Path file = Files.createTempFile("galaxy", ".ndjson");
+        Files.writeString(file, "{\"format\":\"galaxy-ndjson\",\"version\":2,\"name\":\"galaxy\"}\n");
+        assertThrows(IOException.class, () -> new NdjsonReader(file.toString()).read());
+    }
+
+    @Test
+    void testForEachInParallel() throws IOException, NameAlreadyUsedException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        for (int i = 0; i < 500; i++) {
+            galaxy.addSolarSystem(new SolarSystem("solar System" + i,
+                    new BlackHole("black hole", "Black Hole", 10, 30)));
+        }
+        Path file = write(galaxy);
+
+        Set<String> names = ConcurrentHashMap.newKeySet();
+        long count = new NdjsonReader(file.toString(), new ForkJoinPool(4)).forEach(s -> names.add(s.getName()));
+        assertEquals(500, count);
+        assertEquals(galaxy.getSolarSystems().keySet(), names);
+    }
+
+    @Test
+    void testTailFollowsGrowingFile() throws IOException {
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        Path file = Files.createTempFile("galaxy", ".ndjson");
+        NdjsonReader reader = new NdjsonReader(file.toString());
+        List<String> seen = new ArrayList<>();
+
+        NdjsonWriter writer = new NdjsonWriter(file.toString(), true);
+        writer.open();
+        writer.append("galaxy", galaxy.getSolarSystem("solar System1"));
+        writer.append("galaxy", galaxy.getSolarSystem("solar System2"));
+        long offset = reader.tail(0, s -> seen.add(s.getName()));
+        assertEquals(List.of("solar System1", "solar System2"), seen);
+        assertEquals(Files.size(file), offset);
+
+        Files.writeString(file, "{\"galaxy\":\"galaxy\",\"name\":", StandardOpenOption.APPEND);
+        assertEquals(offset, reader.tail(offset, s -> seen.add(s.getName())));
+        assertEquals(2, seen.size());
+
+        Files.writeString(file, "\"solar System5\",\"centralBody\":{\"name\":\"white dwarf\",\"centralBodyType\":"
+                + "\"White Dwarf\",\"mass\":1.1,\"radius\":10},\"planets\":[]}\n", StandardOpenOption.APPEND);
+        offset = reader.tail(offset, s -> seen.add(s.getName()));
+        assertEquals(List.of("solar System1", "solar System2", "solar System5"), seen);
+        assertEquals(Files.size(file), offset);
+        writer.close();
+    }
+
+    private Path write(Galaxy galaxy) throws IOException {
+        Path file = Files.createTempFile("galaxy", ".ndjson");
+        NdjsonWriter writer = new NdjsonWriter(file.toString(), false);
+        writer.open();
+        writer.write(galaxy);
+        writer.close();
+        return file;
+    }
+
+    private void checkGalaxy(Galaxy expected, Galaxy galaxyRead) {
+        assertEquals(expected.getName(), galaxyRead.getName());
+        assertEquals(expected.getSolarSystemCount(), galaxyRead.getSolarSystemCount());
+        for (SolarSystem s : expected.getSolarSystems().values()) {
+            checkSolarSystem(s.getName(), s.getCentralBody(), s.getPlanets(), galaxyRead.getSolarSystem(s.getName()));
+        }
+        assertTrue(expected.toJson().similar(galaxyRead.toJson()));
+    }
+}
@@ -0,0 +1,196 @@
+package Persistence;
+
+import com.sun.management.ThreadMXBean;
+import exceptions.NameAlreadyUsedException;
+import model.*;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.JsonReader;
+import persistence.JsonStreamReader;
+import persistence.JsonStreamWriter;
+import persistence.JsonWriter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+// Benchmark harness for the galaxy readers and writers. Generates galaxies of the given numbers of
+// planets and, for each reader and writer, runs warm-up iterations and then measured iterations,
+// recording the time per operation, planets per second, bytes allocated per operation and the peak
+// heap used. Results are printed and written as JSON so runs before and after a persistence change
+// can be compared.
+//
+// Usage: PersistenceBenchmark [output file] [planet count...]
+// e.g.   PersistenceBenchmark ./data/benchmark-results.json 1000 100000 10000000
+// Large galaxies need a large heap (-Xmx); a size that runs out of memory is recorded as failed.
+public class PersistenceBenchmark {
+    private static final String DEFAULT_OUTPUT = "./data/benchmark-results.json";
+    private static final long[] DEFAULT_PLANET_COUNTS = {1_000, 10_000, 100_000};
+    private static final int PLANETS_PER_SOLAR_SYSTEM = 100;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+
+    // Represents one benchmarked operation on the file and galaxy of a size
+    private interface Operation {
+        void run(Path file, Galaxy galaxy) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String output = args.length > 0 ? args[0] : DEFAULT_OUTPUT;
+        long[] planetCounts = args.length > 1
+                ? Arrays.stream(args, 1, args.length).mapToLong(Long::parseLong).toArray()
+                : DEFAULT_PLANET_COUNTS;
+        JSONArray results = new JSONArray();
+        for (long planets : planetCounts) {
+            try {
+                runSize(planets, results);
+            } catch (OutOfMemoryError e) {
+                results.put(new JSONObject().put("planets", planets).put("failed", "OutOfMemoryError"));
+                System.out.println(planets + " planets: out of memory");
+            }
+        }
+
+        JSONObject report = new JSONObject();
+        report.put("timestamp", System.currentTimeMillis());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        report.put("warmupIterations", WARMUP_ITERATIONS);
+        report.put("measuredIterations", MEASURED_ITERATIONS);
+        report.put("results", results);
+        Files.writeString(Paths.get(output), report.toString(4), StandardCharsets.UTF_8);
+        System.out.println("Results written to " + output);
+    }
+
+    // MODIFIES: results
+    // EFFECTS: benchmarks every reader and writer on a galaxy with the given number of planets
+    private static void runSize(long planets, JSONArray results) throws IOException {
+        Galaxy galaxy = generateGalaxy(planets);
+        Path file = Files.createTempFile("benchmark", ".json");
+        try {
+            results.put(measure("JsonWriter.write", planets, file, galaxy, PersistenceBenchmark::writeDom));
+            results.put(measure("JsonReader.read", planets, file, galaxy,
+                    (f, g) -> new JsonReader(f.toString()).read()));
+            results.put(measure("JsonStreamWriter.write", planets, file, galaxy,
+                    PersistenceBenchmark::writeStream));
+            results.put(measure("JsonStreamReader.read", planets, file, galaxy,
+                    (f, g) -> new JsonStreamReader(f.toString()).read()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // EFFECTS: runs operation for the warm-up and measured iterations and returns its results
+    private static JSONObject measure(String name, long planets, Path file, Galaxy galaxy, Operation operation)
+            throws IOException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run(file, galaxy);
+        }
+        long[] nanos = new long[MEASURED_ITERATIONS];
+        long allocated = 0;
+        long peakHeap = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            EventLog.getInstance().clear();
+            System.gc();
+            resetPeakHeap();
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            operation.run(file, galaxy);
+            nanos[i] = System.nanoTime() - start;
+            allocated += allocatedBytes() - allocatedBefore;
+            peakHeap = Math.max(peakHeap, peakHeap());
+        }
+        return report(name, planets, Files.size(file), nanos, allocated / MEASURED_ITERATIONS, peakHeap);
+    }
+
+    // EFFECTS: returns the results of one benchmark as JSON, after printing a summary of them
+    private static JSONObject report(String name, long planets, long fileBytes, long[] nanos,
+                                     long allocatedPerOperation, long peakHeap) {
+        double meanMillis = Arrays.stream(nanos).average().orElse(0) / 1e6;
+        JSONObject result = new JSONObject();
+        result.put("benchmark", name);
+        result.put("planets", planets);
+        result.put("fileBytes", fileBytes);
+        result.put("meanMillis", meanMillis);
+        result.put("minMillis", Arrays.stream(nanos).min().orElse(0) / 1e6);
+        result.put("maxMillis", Arrays.stream(nanos).max().orElse(0) / 1e6);
+        result.put("planetsPerSecond", planets / (meanMillis / 1000));
+        result.put("allocatedBytesPerOperation", allocatedPerOperation);
+        result.put("peakHeapBytes", peakHeap);
+        System.out.printf("%-24s %,12d planets %,12.1f ms %,16d B allocated %,16d B peak heap%n", name, planets,
+                meanMillis, allocatedPerOperation, peakHeap);
+        return result;
+    }
+
+    // EFFECTS: writes galaxy to file with JsonWriter
+    private static void writeDom(Path file, Galaxy galaxy) throws IOException {
+        JsonWriter writer = new JsonWriter(file.toString());
+        writer.open();
+        writer.write(galaxy);
+        writer.close();
+    }
+
+    // EFFECTS: writes galaxy to file with JsonStreamWriter
+    private static void writeStream(Path file, Galaxy galaxy) throws IOException {
+        JsonStreamWriter writer = new JsonStreamWriter(file.toString(), true);
+        writer.open();
+        writer.write(galaxy);
+        writer.close();
+    }
+
+    // EFFECTS: returns a galaxy with the given number of planets spread over solar systems of
+    //          PLANETS_PER_SOLAR_SYSTEM planets, with repeatable random sizes and orbits
+    private static Galaxy generateGalaxy(long planets) {
+        Random random = new Random(planets);
+        try (BulkLoad bulkLoad = EventLog.getInstance().beginBulkLoad()) {
+            Galaxy galaxy = new Galaxy("benchmark galaxy");
+            for (long i = 0; i < planets; i += PLANETS_PER_SOLAR_SYSTEM) {
+                SolarSystem solarSystem = new SolarSystem("solar system " + i,
+                        new GiantStar("star " + i, "Giant Star", 1 + random.nextDouble() * 20,
+                                random.nextDouble() * 1000, random.nextDouble() * 1e5));
+                for (long j = i; j < Math.min(planets, i + PLANETS_PER_SOLAR_SYSTEM); j++) {
+                    solarSystem.addPlanet(new Planet("planet " + j, random.nextDouble() * 20,
+                            random.nextDouble() * 300, random.nextDouble() * 50, random.nextBoolean(),
+                            random.nextBoolean()));
+                }
+                galaxy.addSolarSystem(solarSystem);
+            }
+            bulkLoad.setGalaxy(galaxy);
+            return galaxy;
+        } catch (NameAlreadyUsedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // EFFECTS: returns the number of bytes this thread has allocated so far
+    private static long allocatedBytes() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // EFFECTS: resets the peak usage of the heap memory pools
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // EFFECTS: returns the sum of the peak usage of the heap memory pools since they were reset
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
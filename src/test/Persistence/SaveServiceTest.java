@@ -0,0 +1,90 @@
+package Persistence;
+
+import model.Galaxy;
+import model.Planet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.JsonReader;
+import persistence.SaveListener;
+import persistence.SaveService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaveServiceTest extends JsonTest {
+    private BlockingQueue<Runnable> modelThread;
+    private List<String> reports;
+    private SaveListener listener;
+
+    @BeforeEach
+    void runBefore() {
+        modelThread = new LinkedBlockingQueue<>();
+        reports = new ArrayList<>();
+        listener = new SaveListener() {
+            @Override
+            public void snapshotTaken(Galaxy galaxy) {
+                reports.add("snapshot");
+            }
+
+            @Override
+            public void saveCompleted(Galaxy galaxy) {
+                reports.add("completed");
+            }
+
+            @Override
+            public void saveFailed(Galaxy galaxy, IOException e) {
+                reports.add("failed");
+            }
+        };
+    }
+
+    @Test
+    void testSaveCoalescesRequests() throws Exception {
+        Path file = Files.createTempDirectory("galaxy").resolve("galaxy.json");
+        SaveService service = new SaveService(file.toString(), modelThread::add, listener);
+        Galaxy galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+
+        service.requestSave(galaxy);
+        Runnable snapshot = nextTask();
+        service.requestSave(galaxy);
+        service.requestSave(galaxy);
+        snapshot.run();
+        galaxy.getSolarSystem("solar System3").addPlanet(new Planet("late planet", 1, 1, 1, false, false));
+        nextTask().run();
+        assertEquals(2, new JsonReader(file.toString()).read().getSolarSystem("solar System1").getPlanetCount());
+        assertEquals(0, new JsonReader(file.toString()).read().getSolarSystem("solar System3").getPlanetCount());
+
+        nextTask().run();
+        nextTask().run();
+        assertNull(modelThread.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(List.of("snapshot", "completed", "snapshot", "completed"), reports);
+        assertEquals(1, new JsonReader(file.toString()).read().getSolarSystem("solar System3").getPlanetCount());
+        assertFalse(Files.exists(file.resolveSibling("galaxy.json.tmp")));
+        service.close();
+    }
+
+    @Test
+    void testSaveFailure() throws Exception {
+        SaveService service = new SaveService("./data/noSuchDirectory/galaxy.json", modelThread::add, listener);
+        service.requestSave(new Galaxy("galaxy"));
+        nextTask().run();
+        nextTask().run();
+        assertEquals(List.of("snapshot", "failed"), reports);
+        service.close();
+    }
+
+    private Runnable nextTask() throws InterruptedException {
+        Runnable task = modelThread.poll(5, TimeUnit.SECONDS);
+        assertNotNull(task);
+        return task;
+    }
+}
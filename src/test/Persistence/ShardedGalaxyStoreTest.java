@@ -0,0 +1,118 @@
+package Persistence;
+
+import exceptions.NameAlreadyUsedException;
+import model.*;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.ShardedGalaxyStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedGalaxyStoreTest extends JsonTest {
+    private Path directory;
+    private ShardedGalaxyStore store;
+    private Galaxy galaxy;
+
+    @BeforeEach
+    void runBefore() throws IOException, NameAlreadyUsedException {
+        directory = Files.createTempDirectory("shards");
+        store = new ShardedGalaxyStore(directory.toString());
+        galaxy = new Galaxy("galaxy");
+        buildGalaxy(galaxy);
+        for (int i = 0; i < 100; i++) {
+            galaxy.addSolarSystem(new SolarSystem("system" + i, new WhiteDwarf("white dwarf" + i, i + 1)));
+        }
+    }
+
+    @Test
+    void testLoadMissingStore() {
+        ShardedGalaxyStore missing = new ShardedGalaxyStore(directory.resolve("missing").toString());
+        assertThrows(IOException.class, () -> missing.load());
+    }
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        store.save(galaxy, 8);
+        assertEquals(8, store.getShardCount());
+        Galaxy galaxyRead = store.load();
+        assertEquals("galaxy", galaxyRead.getName());
+        assertEquals(galaxy.getSolarSystemCount(), galaxyRead.getSolarSystemCount());
+        for (SolarSystem s : galaxy.getSolarSystems().values()) {
+            checkSolarSystem(s.getName(), s.getCentralBody(), s.getPlanets(), galaxyRead.getSolarSystem(s.getName()));
+        }
+    }
+
+    @Test
+    void testLoadShard() throws IOException {
+        store.save(galaxy, 8);
+        int total = 0;
+        for (int shard = 0; shard < 8; shard++) {
+            Galaxy galaxyRead = store.loadShard(shard);
+            for (String name : galaxyRead.getSolarSystems().keySet()) {
+                assertEquals(shard, ShardedGalaxyStore.shardOf(name, 8));
+            }
+            total += galaxyRead.getSolarSystemCount();
+        }
+        assertEquals(galaxy.getSolarSystemCount(), total);
+    }
+
+    @Test
+    void testLoadSolarSystems() throws IOException {
+        store.save(galaxy, 8);
+        Galaxy galaxyRead = store.loadSolarSystems(List.of("solar System1", "system42", "no such system"));
+        assertEquals(2, galaxyRead.getSolarSystemCount());
+        SolarSystem s = galaxy.getSolarSystem("solar System1");
+        checkSolarSystem(s.getName(), s.getCentralBody(), s.getPlanets(), galaxyRead.getSolarSystem(s.getName()));
+        assertNotNull(galaxyRead.getSolarSystem("system42"));
+    }
+
+    @Test
+    void testResaveWithFewerShards() throws IOException {
+        store.save(galaxy, 8);
+        store.save(galaxy, 3);
+        assertTrue(Files.exists(directory.resolve("generation-2").resolve("shard-002.json")));
+        assertFalse(Files.exists(directory.resolve("generation-2").resolve("shard-003.json")));
+        assertFalse(Files.exists(directory.resolve("generation-1")));
+        assertEquals(galaxy.getSolarSystemCount(), store.load().getSolarSystemCount());
+    }
+
+    @Test
+    void testInterruptedSaveKeepsPreviousGeneration() throws IOException {
+        store.save(galaxy, 8);
+        Path unfinished = Files.createDirectories(directory.resolve("generation-2"));
+        Files.writeString(unfinished.resolve("shard-000.json"), "[");
+        assertEquals(galaxy.getSolarSystemCount(), store.load().getSolarSystemCount());
+
+        store.save(galaxy, 4);
+        assertEquals(4, store.getShardCount());
+        assertEquals(galaxy.getSolarSystemCount(), store.load().getSolarSystemCount());
+    }
+
+    @Test
+    void testShardWithWrongCountRejected() throws IOException {
+        store.save(galaxy, 8);
+        int shard = ShardedGalaxyStore.shardOf("system42", 8);
+        Files.writeString(directory.resolve("generation-1").resolve(String.format("shard-%03d.json", shard)), "[]");
+        assertThrows(IOException.class, () -> store.loadShard(shard));
+    }
+
+    @Test
+    void testManifestWithoutGenerationRejected() throws IOException {
+        store.save(galaxy, 8);
+        Path manifest = directory.resolve("manifest.json");
+        JSONObject contents = new JSONObject(Files.readString(manifest));
+        contents.remove("generation");
+        Files.writeString(manifest, contents.toString());
+        for (int i = 0; i < 8; i++) {
+            Files.writeString(directory.resolve(String.format("shard-%03d.json", i)), "[]");
+        }
+        assertThrows(IOException.class, () -> store.load());
+        assertThrows(IOException.class, () -> store.save(galaxy, 8));
+    }
+}
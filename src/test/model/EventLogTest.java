@@ -1,16 +1,20 @@
 package model;
 
 
+import exceptions.NameAlreadyUsedException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
 
 /**
  * Unit tests for the EventLog class
@@ -31,6 +35,11 @@ public class EventLogTest {
         el.logEvent(e3);
     }
 
+    @AfterEach
+    public void restoreCapacity() {
+        EventLog.getInstance().setCapacity(EventLog.DEFAULT_CAPACITY);
+    }
+
     @Test
     public void testLogEvent() {
         List<Event> l = new ArrayList<Event>();
@@ -54,4 +63,205 @@ public class EventLogTest {
         assertEquals("Event log cleared.", itr.next().getDescription());
         assertFalse(itr.hasNext());
     }
+
+    @Test
+    public void testBoundedCapacity() {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        el.setCapacity(2);
+        assertEquals(2, el.getCapacity());
+        el.logEvent(e1);
+        el.logEvent(e2);
+        el.logEvent(e3);
+        assertEquals(2, el.size());
+        assertEquals(2, el.getDroppedCount());
+
+        Iterator<Event> itr = el.iterator();
+        assertEquals(e2, itr.next());
+        assertEquals(e3, itr.next());
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void testSetCapacityKeepsRecentEvents() {
+        EventLog el = EventLog.getInstance();
+        el.setCapacity(1);
+        Iterator<Event> itr = el.iterator();
+        assertEquals(e3, itr.next());
+        assertFalse(itr.hasNext());
+        assertEquals(1, el.size());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    el.logEvent(new Event("concurrent"));
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        int count = 0;
+        for (Event next : el) {
+            count++;
+        }
+        assertEquals(4001, count);
+        assertEquals(4001, el.size());
+        assertEquals(0, el.getDroppedCount());
+    }
+
+    @Test
+    public void testConcurrentProducersLappingSmallLog() throws InterruptedException {
+        EventLog el = EventLog.getInstance();
+        el.setCapacity(8);
+        el.clear();
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    el.logEvent(new Event("lapping"));
+                }
+            });
+            producers[t].start();
+        }
+        for (int i = 0; i < 1000; i++) {
+            int seen = 0;
+            for (Event next : el) {
+                seen++;
+            }
+            assertTrue(seen <= 8);
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        int count = 0;
+        for (Event next : el) {
+            count++;
+        }
+        assertEquals(8, count);
+        assertEquals(80001 - 8, el.getDroppedCount());
+    }
+
+    @Test
+    public void testLogTemplateEvent() {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        el.logEvent(EventTemplate.GALAXY_RENAMED, null, "Andromeda");
+        Iterator<Event> itr = el.iterator();
+        itr.next();
+        assertEquals("Changed galaxy's name to Andromeda", itr.next().getDescription());
+    }
+
+    @Test
+    public void testDisabledCategory() {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        el.setEnabled(EventCategory.BODY_CREATED, false);
+        assertFalse(el.isEnabled(EventCategory.BODY_CREATED));
+        new Planet("skipped");
+        el.logEvent(EventTemplate.PLANET_ADDED, "kept", null);
+        el.setEnabled(EventCategory.BODY_CREATED, true);
+        assertTrue(el.isEnabled(EventCategory.BODY_CREATED));
+
+        Iterator<Event> itr = el.iterator();
+        assertEquals(EventCategory.GENERAL, itr.next().getCategory());
+        assertEquals("kept", itr.next().getBodyName());
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void testBulkLoad() {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        try (BulkLoad bulkLoad = el.beginBulkLoad()) {
+            Galaxy galaxy = new Galaxy("bulk");
+            SolarSystem solarSystem = new SolarSystem("system", new BlackHole("BH", 10));
+            solarSystem.addPlanet(new Planet("planet"));
+            galaxy.addSolarSystem(solarSystem);
+            el.logEvent(e1);
+            bulkLoad.setGalaxy(galaxy);
+        } catch (NameAlreadyUsedException e) {
+            fail("Unexpected duplicate name");
+        }
+
+        Iterator<Event> itr = el.iterator();
+        itr.next();
+        assertEquals(e1, itr.next());
+        Event summary = itr.next();
+        assertEquals(EventCategory.GALAXY_LOADED, summary.getCategory());
+        assertEquals("bulk", summary.getGalaxyName());
+        assertTrue(summary.getDescription().startsWith("Loaded galaxy bulk: 1 systems, 1 planets in "));
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void testBulkLoadOnlySuppressesItsThread() throws InterruptedException {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        try (BulkLoad bulkLoad = el.beginBulkLoad()) {
+            new Planet("loaded");
+            Thread editor = new Thread(() -> new Planet("edited"));
+            editor.start();
+            editor.join();
+            Thread worker = new Thread(() -> bulkLoad.within(() -> new Planet("decoded")));
+            worker.start();
+            worker.join();
+        }
+
+        Iterator<Event> itr = el.iterator();
+        itr.next();
+        assertEquals("edited", itr.next().getBodyName());
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void testEventsBetween() {
+        EventLog el = EventLog.getInstance();
+        Date before = new Date(e1.getDate().getTime() - 1);
+        Date after = new Date(e3.getDate().getTime() + 1);
+        List<Event> found = el.eventsBetween(before, after);
+        assertTrue(found.contains(e1));
+        assertTrue(found.contains(e3));
+        assertTrue(el.eventsBetween(new Date(after.getTime() + 60000), new Date(after.getTime() + 120000)).isEmpty());
+    }
+
+    @Test
+    public void testEventsBetweenOutOfTimeOrder() {
+        EventLog el = EventLog.getInstance();
+        Event early = new Event(1000, null, null, null, "created long ago");
+        el.logEvent(early);
+        el.logEvent(new Event("logged now"));
+
+        List<Event> found = el.eventsBetween(new Date(999), new Date(1001));
+        assertEquals(1, found.size());
+        assertEquals(early, found.get(0));
+    }
+
+    @Test
+    public void testEventsInCategoryAndAbout() {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        el.logEvent(EventTemplate.PLANET_ADDED, "Mars", null);
+        new Planet("Venus");
+        el.logEvent(EventTemplate.PLANET_REMOVED, "Mars", null);
+
+        List<Event> aboutMars = el.eventsAbout("Mars");
+        assertEquals(2, aboutMars.size());
+        assertEquals(EventCategory.PLANET_REMOVED, aboutMars.get(1).getCategory());
+        assertEquals(1, el.eventsInCategory(EventCategory.BODY_CREATED).size());
+        assertEquals("Venus", el.eventsInCategory(EventCategory.BODY_CREATED).get(0).getBodyName());
+        assertTrue(el.eventsAbout("Pluto").isEmpty());
+
+        el.clear();
+        assertTrue(el.eventsAbout("Mars").isEmpty());
+    }
 }
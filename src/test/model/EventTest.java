@@ -9,6 +9,7 @@ import java.util.Date;
 
 import static java.lang.Math.abs;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -40,4 +41,16 @@ public class EventTest {
     public void testToString() {
         assertEquals(d.toString() + "\n" + "Created galaxy", e.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testTemplateEvent() {
+        Event templateEvent = new Event(EventTemplate.PLANET_CREATED, "Earth", null);
+        assertEquals(EventTemplate.PLANET_CREATED, templateEvent.getTemplate());
+        assertEquals(EventCategory.BODY_CREATED, templateEvent.getCategory());
+        assertEquals("Earth", templateEvent.getBodyName());
+        assertNull(templateEvent.getGalaxyName());
+        assertEquals("Created planet: Earth", templateEvent.getDescription());
+        assertEquals("Added planet to solar system", EventTemplate.PLANET_ADDED.render("Earth", null));
+        assertEquals(EventCategory.GENERAL, e.getCategory());
+    }
+}
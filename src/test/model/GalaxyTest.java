@@ -4,10 +4,12 @@ import exceptions.NameAlreadyUsedException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 
 public class GalaxyTest {
@@ -135,4 +137,81 @@ public class GalaxyTest {
         galaxy.changeName("New name");
         assertEquals("New name", galaxy.getName());
     }
+
+    @Test
+    public void lazySourceTest() throws NameAlreadyUsedException {
+        solarSystems.put("SS1", solarSystem1);
+        solarSystems.put("SS2", solarSystem2);
+        List<String> loaded = new ArrayList<>();
+        galaxy = new Galaxy("Galaxy", new SolarSystemSource() {
+            @Override
+            public Set<String> names() {
+                return solarSystems.keySet();
+            }
+
+            @Override
+            public SolarSystem load(String name) {
+                loaded.add(name);
+                return solarSystems.get(name);
+            }
+        });
+        assertEquals(2, galaxy.getSolarSystemCount());
+        assertTrue(galaxy.hasSolarSystem("SS2"));
+        assertTrue(galaxy.hasUnloadedSolarSystems());
+        assertTrue(loaded.isEmpty());
+
+        assertEquals(solarSystem1, galaxy.getSolarSystem("SS1"));
+        assertEquals(solarSystem1, galaxy.getSolarSystem("SS1"));
+        assertEquals(List.of("SS1"), loaded);
+        assertNull(galaxy.getSolarSystem("SS3"));
+        assertThrows(NameAlreadyUsedException.class, () -> galaxy.addSolarSystem(solarSystem2));
+
+        galaxy.removeSolarSystem("SS2");
+        assertFalse(galaxy.hasSolarSystem("SS2"));
+        assertNull(galaxy.getSolarSystem("SS2"));
+        galaxy.addSolarSystem(solarSystem3);
+        assertEquals(2, galaxy.getSolarSystemCount());
+        assertEquals(Set.of("SS1", "SS3"), galaxy.getSolarSystems().keySet());
+        assertFalse(galaxy.hasUnloadedSolarSystems());
+        assertEquals(List.of("SS1"), loaded);
+    }
+
+    @Test
+    public void dirtyTrackingTest() throws NameAlreadyUsedException {
+        galaxy = new Galaxy("Galaxy");
+        assertFalse(galaxy.isDirty());
+        galaxy.addSolarSystem(solarSystem1);
+        galaxy.addSolarSystem(solarSystem2);
+        assertTrue(galaxy.isDirty());
+        assertEquals(Set.of(solarSystem1, solarSystem2), galaxy.getChangedSolarSystems());
+
+        galaxy.clearDirty();
+        assertFalse(galaxy.isDirty());
+        assertFalse(solarSystem1.isDirty());
+
+        solarSystem1.addPlanet(new Planet("P1"));
+        assertTrue(solarSystem1.isDirty());
+        assertFalse(solarSystem2.isDirty());
+        galaxy.removeSolarSystem("SS2");
+        galaxy.changeName("New name");
+        assertEquals(Set.of(solarSystem1), galaxy.getChangedSolarSystems());
+        assertEquals(Set.of("SS2"), galaxy.getRemovedSolarSystemNames());
+        assertTrue(galaxy.isNameChanged());
+
+        galaxy.clearDirty();
+        solarSystem2.clearPlanets();
+        assertFalse(galaxy.isDirty());
+        solarSystem1.changeName("SS4");
+        assertEquals(Set.of(solarSystem1), galaxy.getChangedSolarSystems());
+        assertEquals(Set.of("SS1"), galaxy.getRemovedSolarSystemNames());
+        assertEquals(solarSystem1, galaxy.getSolarSystem("SS4"));
+        assertNull(galaxy.getSolarSystem("SS1"));
+
+        galaxy.clearDirty();
+        galaxy.markDirty();
+        assertTrue(galaxy.isDirty());
+        assertTrue(galaxy.isNameChanged());
+        assertTrue(solarSystem1.isDirty());
+        assertEquals(Set.of(solarSystem1), galaxy.getChangedSolarSystems());
+    }
 }